@@ -0,0 +1,126 @@
+package bench;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+// Medição simples de microbenchmarks, sem dependências: aquecimento, iterações cronometradas, ns/op e bytes
+// alocados por operação. Os resultados podem ser gravados em CSV e comparados com os de outro commit.
+// Propriedades de sistema:
+//   -Dbench.warmup=5 -Dbench.iterations=5 -Dbench.millis=1000  aquecimento, iterações medidas e duração de cada uma
+//   -Dbench.include=<regex>                                    roda só os benchmarks cujo nome casar
+//   -Dbench.out=<arquivo.csv>                                  grava os resultados
+//   -Dbench.baseline=<arquivo.csv>                             compara com resultados gravados antes
+public final class Bench {
+    public interface Body {
+        long run(int ops); // Executa ops operações e devolve um valor derivado delas, para o JIT não as eliminar
+    }
+
+    private record Result(String name, double nsPerOp, double error, double bytesPerOp) {
+    }
+
+    private static final int WARMUP = Integer.getInteger("bench.warmup", 5);
+    private static final int ITERATIONS = Integer.getInteger("bench.iterations", 5);
+    private static final long MILLIS = Long.getLong("bench.millis", 1000);
+    private static final Pattern INCLUDE = Pattern.compile(System.getProperty("bench.include", ".*"));
+    private static final PrintStream OUT = System.out;
+    private static final PrintStream DISCARD = new PrintStream(OutputStream.nullOutputStream());
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private static final List<Result> RESULTS = new ArrayList<>();
+
+    public static volatile long sink; // Consome os resultados
+
+    private Bench() {
+    }
+
+    public static void run(String name, Body body) {
+        if (!INCLUDE.matcher(name).matches()) return;
+        System.setOut(DISCARD); // O console do servidor não entra na medição
+        double[] samples = new double[ITERATIONS];
+        double bytes = 0;
+        try {
+            for (int i = 0; i < WARMUP; i++) iteration(body, null);
+            long[] allocated = new long[2];
+            for (int i = 0; i < ITERATIONS; i++) {
+                samples[i] = iteration(body, allocated);
+            }
+            bytes = (double) allocated[0] / allocated[1];
+        } finally {
+            System.setOut(OUT);
+        }
+
+        double mean = 0;
+        for (double sample : samples) mean += sample;
+        mean /= samples.length;
+        double variance = 0;
+        for (double sample : samples) variance += (sample - mean) * (sample - mean);
+        double error = samples.length > 1 ? Math.sqrt(variance / (samples.length - 1)) : 0;
+        RESULTS.add(new Result(name, mean, error, bytes));
+        OUT.printf("%-40s %12.2f ± %8.2f ns/op %10.1f B/op%n", name, mean, error, bytes);
+    }
+
+    // ns/op de uma iteração; acumula em allocated {bytes, ops} quando informado
+    private static double iteration(Body body, long[] allocated) {
+        long thread = Thread.currentThread().threadId();
+        long deadline = System.nanoTime() + MILLIS * 1_000_000;
+        long ops = 0;
+        long elapsed = 0;
+        int batch = 1024;
+        long result = 0;
+        long bytesBefore = THREADS.getThreadAllocatedBytes(thread);
+        while (System.nanoTime() < deadline) {
+            long start = System.nanoTime();
+            result += body.run(batch);
+            elapsed += System.nanoTime() - start;
+            ops += batch;
+        }
+        if (allocated != null) {
+            allocated[0] += THREADS.getThreadAllocatedBytes(thread) - bytesBefore;
+            allocated[1] += ops;
+        }
+        sink = result;
+        return (double) elapsed / ops;
+    }
+
+    public static void finish() { // Grava o CSV e compara com a linha de base, se pedidos
+        String out = System.getProperty("bench.out");
+        String baseline = System.getProperty("bench.baseline");
+        try {
+            if (out != null) {
+                List<String> lines = new ArrayList<>();
+                lines.add("benchmark,ns_per_op,error,bytes_per_op");
+                for (Result r : RESULTS) {
+                    lines.add(r.name() + "," + r.nsPerOp() + "," + r.error() + "," + r.bytesPerOp());
+                }
+                Files.write(Path.of(out), lines);
+                OUT.println("Resultados gravados em " + out);
+            }
+            if (baseline != null) {
+                Map<String, Double> before = new HashMap<>();
+                List<String> lines = Files.readAllLines(Path.of(baseline));
+                for (String line : lines.subList(1, lines.size())) {
+                    String[] fields = line.split(",");
+                    before.put(fields[0], Double.parseDouble(fields[1]));
+                }
+                OUT.println("Comparação com " + baseline + ":");
+                for (Result r : RESULTS) {
+                    Double old = before.get(r.name());
+                    if (old == null) continue;
+                    OUT.printf("%-40s %12.2f -> %12.2f ns/op (%+.1f%%)%n", r.name(), old, r.nsPerOp(),
+                            (r.nsPerOp() - old) * 100 / old);
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
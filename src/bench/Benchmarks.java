@@ -0,0 +1,14 @@
+package bench;
+
+// Roda todos os benchmarks em sequência. Para comparar dois commits:
+//   java -Dbench.out=antes.csv -cp <classes> bench.Benchmarks      (no commit antigo)
+//   java -Dbench.baseline=antes.csv -cp <classes> bench.Benchmarks (no commit novo)
+public class Benchmarks {
+    public static void main(String[] args) {
+        DeckBenchmark.run();
+        HandBenchmark.run();
+        ProtocolBenchmark.run();
+        RoundBenchmark.run();
+        Bench.finish();
+    }
+}
@@ -0,0 +1,49 @@
+package bench;
+
+import server.Card;
+import server.Deck;
+import server.Shoe;
+
+import java.util.SplittableRandom;
+
+// Criação, embaralhamento e compra de cartas
+public class DeckBenchmark {
+    public static void main(String[] args) {
+        run();
+        Bench.finish();
+    }
+
+    static void run() {
+        Bench.run("deck.construct", ops -> {
+            long sum = 0;
+            SplittableRandom random = new SplittableRandom(42);
+            for (int op = 0; op < ops; op++) sum += new Deck(1, random).size();
+            return sum;
+        });
+
+        Deck deck = new Deck(1, new SplittableRandom(42));
+        Bench.run("deck.shuffle", ops -> {
+            long sum = 0;
+            for (int op = 0; op < ops; op++) {
+                deck.shuffle();
+                sum += deck.dealt();
+            }
+            return sum;
+        });
+
+        // Uma rodada de dois jogadores: quatro cartas iniciais e dois HITs, com a carta de corte do sapato
+        Shoe shoe = new Shoe(6, 0.75, new SplittableRandom(42));
+        shoe.shuffle();
+        Bench.run("shoe.dealRound", ops -> {
+            long sum = 0;
+            for (int op = 0; op < ops; op++) {
+                shoe.shuffleIfNeeded();
+                for (int i = 0; i < 6; i++) {
+                    Card card = shoe.drawCard();
+                    sum += card.getValue();
+                }
+            }
+            return sum;
+        });
+    }
+}
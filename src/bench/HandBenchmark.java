@@ -0,0 +1,85 @@
+package bench;
+
+import server.Card;
+import server.Deck;
+import server.Hand;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Avaliação da mão a cada HIT: o método antigo (recalcula a List<Card> inteira) contra o Hand incremental.
+// Uso: java -cp <classes> bench.HandBenchmark
+public class HandBenchmark {
+    private static final int HANDS = 1024;
+    private static final int MAX_CARDS = 6;
+
+    private final Card[][] hands = new Card[HANDS][MAX_CARDS];
+
+    public HandBenchmark() {
+        Deck deck = new Deck(1, new SplittableRandom(42)); // Semente fixa: as mesmas mãos em toda execução
+        for (Card[] hand : hands) {
+            deck.shuffle();
+            for (int i = 0; i < MAX_CARDS; i++) hand[i] = deck.drawCard();
+        }
+    }
+
+    public static void main(String[] args) {
+        run();
+        Bench.finish();
+    }
+
+    static void run() {
+        HandBenchmark benchmark = new HandBenchmark();
+        Bench.run("hand.listRescan", benchmark::listRescan);
+        Bench.run("hand.incremental", benchmark::incremental);
+    }
+
+    // Uma operação = uma mão completa: duas cartas iniciais e quatro HITs, avaliando o total a cada carta
+    long listRescan(int ops) {
+        long sum = 0;
+        List<Card> hand = new ArrayList<>(MAX_CARDS);
+        for (int op = 0; op < ops; op++) {
+            Card[] cards = hands[op & (HANDS - 1)];
+            hand.clear();
+            for (Card card : cards) {
+                hand.add(card);
+                sum += calculateHandValue(hand);
+            }
+        }
+        return sum;
+    }
+
+    long incremental(int ops) {
+        long sum = 0;
+        Hand hand = new Hand();
+        for (int op = 0; op < ops; op++) {
+            Card[] cards = hands[op & (HANDS - 1)];
+            hand.clear();
+            for (Card card : cards) {
+                hand.add(card);
+                sum += hand.total();
+            }
+        }
+        return sum;
+    }
+
+    // Implementação anterior de BlackJackServer.calculateHandValue, mantida como referência
+    static int calculateHandValue(List<Card> hand) {
+        int total = 0;
+        int aces = 0;
+        for (Card card : hand) {
+            int value = card.getValue();
+            if (value == 1) {
+                aces++;
+                value = 11;
+            }
+            total += value;
+        }
+        while (total > 21 && aces > 0) { // If bust and has Aces, convert Aces from 11 to 1
+            total -= 10;
+            aces--;
+        }
+        return total;
+    }
+}
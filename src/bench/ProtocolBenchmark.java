@@ -0,0 +1,70 @@
+package bench;
+
+import server.BinaryProtocol;
+import server.Card;
+import server.Message;
+import server.TextProtocol;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+// Formatação das mensagens de um jogador na distribuição: carta visível, oculta, do oponente, vidas e vez
+public class ProtocolBenchmark {
+    private static final Card[] CARDS = new Card[52];
+
+    static {
+        for (int i = 0; i < CARDS.length; i++) CARDS[i] = Card.of(i % 13 + 1, i / 13);
+    }
+
+    public static void main(String[] args) {
+        run();
+        Bench.finish();
+    }
+
+    static void run() {
+        Bench.run("protocol.concat", ProtocolBenchmark::concat);
+        TextProtocol text = new TextProtocol();
+        Bench.run("protocol.text", ops -> deal(ops, text::write, text::write));
+        BinaryProtocol binary = new BinaryProtocol();
+        Bench.run("protocol.binary", ops -> deal(ops, binary::write, binary::write));
+    }
+
+    private interface CardWriter {
+        void write(ByteArrayOutputStream out, Message message, Card card);
+    }
+
+    private interface NumberWriter {
+        void write(ByteArrayOutputStream out, Message message, int value);
+    }
+
+    // Como era antes: concatenação de String com Card.toString() e codificação UTF-8 a cada linha
+    private static long concat(int ops) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        long sum = 0;
+        for (int op = 0; op < ops; op++) {
+            out.reset();
+            out.writeBytes(("VISIBLE_CARD " + CARDS[op % 52] + "\n").getBytes(StandardCharsets.UTF_8));
+            out.writeBytes(("HIDDEN_CARD " + CARDS[(op + 1) % 52] + "\n").getBytes(StandardCharsets.UTF_8));
+            out.writeBytes(("DEALER_CARD " + CARDS[(op + 2) % 52] + "\n").getBytes(StandardCharsets.UTF_8));
+            out.writeBytes(("LIVES " + (op & 31) + "\n").getBytes(StandardCharsets.UTF_8));
+            out.writeBytes(("YOUR_TURN" + "\n").getBytes(StandardCharsets.UTF_8));
+            sum += out.size();
+        }
+        return sum;
+    }
+
+    private static long deal(int ops, CardWriter cards, NumberWriter numbers) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        long sum = 0;
+        for (int op = 0; op < ops; op++) {
+            out.reset();
+            cards.write(out, Message.VISIBLE_CARD, CARDS[op % 52]);
+            cards.write(out, Message.HIDDEN_CARD, CARDS[(op + 1) % 52]);
+            cards.write(out, Message.DEALER_CARD, CARDS[(op + 2) % 52]);
+            numbers.write(out, Message.LIVES, op & 31);
+            numbers.write(out, Message.YOUR_TURN, 0);
+            sum += out.size();
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,165 @@
+package bench;
+
+import server.BlackJackServer;
+import server.Broadcast;
+import server.BufferedConnection;
+import server.Card;
+import server.ClientHandler;
+import server.ClusterNode;
+import server.Connection;
+import server.Message;
+import server.Outcome;
+import server.PlayerProfile;
+import server.SeatState;
+import server.ServerConfig;
+import server.Table;
+import server.TableSnapshot;
+import server.TextProtocol;
+
+// Rodadas completas em memória, sem sockets: a mesa roda na própria thread do benchmark.
+// round.settle mede as regras (dois STAND, acerto de vidas e nova distribuição) sem codificar mensagens;
+// round.endToEnd inclui a leitura dos comandos, o protocolo de texto e o flush por evento.
+public class RoundBenchmark {
+    private final BlackJackServer server;
+    private final boolean encode;
+    private int nextTableId;
+    private Table table;
+    private ClientHandler player1;
+    private ClientHandler player2;
+
+    RoundBenchmark(BlackJackServer server, boolean encode) {
+        this.server = server;
+        this.encode = encode;
+    }
+
+    public static void main(String[] args) {
+        run();
+        Bench.finish();
+    }
+
+    static void run() {
+        if (System.getProperty("blackjack.shuffle") == null) {
+            System.setProperty("blackjack.shuffle", "seeded"); // Mesmas cartas em toda execução
+        }
+        if (System.getProperty("blackjack.log") == null) {
+            System.setProperty("blackjack.log", "warn"); // Logs de mesa fora da medição
+        }
+        if (System.getProperty("blackjack.journal") == null) {
+            System.setProperty("blackjack.journal", ""); // Mede a mesa, não o disco
+        }
+        if (System.getProperty("blackjack.profiles") == null) {
+            System.setProperty("blackjack.profiles", "");
+        }
+        BlackJackServer server = new BlackJackServer(new ServerConfig());
+        RoundBenchmark settle = new RoundBenchmark(server, false);
+        Bench.run("round.settle", settle::settle);
+        RoundBenchmark endToEnd = new RoundBenchmark(server, true);
+        Bench.run("round.endToEnd", endToEnd::endToEnd);
+    }
+
+    private void newMatch() {
+        table = new Table(++nextTableId, server, Runnable::run);
+        player1 = new ClientHandler(encode ? new StubConnection() : new NullConnection(), server);
+        player2 = new ClientHandler(encode ? new StubConnection() : new NullConnection(), server);
+        player1.seat(table, 1);
+        player2.seat(table, 2);
+        table.execute(() -> table.addPlayer(player1));
+        table.execute(() -> table.addPlayer(player2));
+        table.execute(table::startGame);
+    }
+
+    private boolean matchOver() { // Também verdadeiro antes da primeira partida
+        return table == null || player1.getLives() <= 0 || player2.getLives() <= 0;
+    }
+
+    long settle(int ops) {
+        long sum = 0;
+        for (int op = 0; op < ops; op++) {
+            if (matchOver()) newMatch();
+            table.execute(() -> table.onStand(player1));
+            table.execute(() -> table.onStand(player2));
+            sum += player1.getLives();
+        }
+        return sum;
+    }
+
+    long endToEnd(int ops) {
+        long sum = 0;
+        for (int op = 0; op < ops; op++) {
+            if (matchOver()) newMatch();
+            if (player1.getTotal() < 12) player1.onMessage("HIT");
+            player1.onMessage("STAND");
+            player2.onMessage("STAND");
+            sum += player1.getLives();
+        }
+        return sum;
+    }
+
+    // Codifica em texto como uma conexão real e descarta os lotes no lugar do socket
+    private static class StubConnection extends BufferedConnection {
+        StubConnection() {
+            super(new TextProtocol(), Integer.MAX_VALUE);
+        }
+
+        @Override
+        protected void write(byte[] batch) {
+            written(batch.length);
+        }
+
+        @Override
+        public void close() {
+            markClosed();
+        }
+    }
+
+    private static class NullConnection implements Connection { // Ignora tudo
+        @Override
+        public void send(Message message) {
+        }
+
+        @Override
+        public void send(Message message, int value) {
+        }
+
+        @Override
+        public void send(Message message, Card card) {
+        }
+
+        @Override
+        public void send(Message message, Outcome outcome) {
+        }
+
+        @Override
+        public void send(TableSnapshot snapshot) {
+        }
+
+        @Override
+        public void send(Message message, long token) {
+        }
+
+        @Override
+        public void send(SeatState state) {
+        }
+
+        @Override
+        public void send(PlayerProfile profile) {
+        }
+
+        @Override
+        public void send(ClusterNode node) {
+        }
+
+        @Override
+        public boolean offer(Broadcast broadcast) {
+            return true;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -2,109 +2,356 @@ package client;
 
 import java.io.*;
 import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
 import java.util.Scanner;
+import java.util.concurrent.Semaphore;
 
-public class BlackJackClient {
+public class BlackJackClient implements GameListener {
     private static final String SERVER_ADDRESS = "localhost";
     private static final int PORT = 12345;
-    private boolean inGame = true;
+    private static final int BINARY_PORT = 12346;
+    private static final int RECONNECT_ATTEMPTS = 5;
+    private static final long RECONNECT_DELAY_MILLIS = 1000;
+    private static final int MAX_REDIRECTS = 3; // REDIRECT seguidos aceitos antes de desistir
+    private final boolean binary; // Usa o protocolo binário compacto em vez do texto
+    private String host = SERVER_ADDRESS; // Nó atual; no cluster, muda com REDIRECT
+    private int port;
+    private volatile boolean redirected; // REDIRECT recebido: o leitor para e reconecta no novo nó
+    private int redirects;
+    private final String name = System.getProperty("blackjack.name"); // Nome do perfil; null joga anônimo
+    private final Integer watch = Integer.getInteger("blackjack.watch"); // Mesa a assistir (0 = qualquer); null joga
+    private volatile boolean inGame = true;
     private int playerId;
-    private volatile boolean myTurn = false;
+    private Socket socket;
+    private OutputStream out; // Escrito pela thread principal (jogadas) e pela de leitura (PONG); trocado ao reconectar
+    private volatile long sessionToken; // 0 enquanto não há assento
+    private final Semaphore myTurn = new Semaphore(0); // Liberado a cada YOUR_TURN e no fim do jogo
+
+    public BlackJackClient(boolean binary) {
+        this.binary = binary;
+        this.port = binary ? BINARY_PORT : PORT;
+    }
 
     public static void main(String[] args) {
-        new BlackJackClient().startClient();
+        // -Dblackjack.protocol=binary para usar o protocolo binário; -Dblackjack.name=<nome> para usar um perfil salvo;
+        // -Dblackjack.watch=<mesa> para só assistir a uma mesa (0 = qualquer uma)
+        new BlackJackClient("binary".equals(System.getProperty("blackjack.protocol"))).startClient();
     }
 
     public void startClient() {
-        try (
-                Socket socket = new Socket(SERVER_ADDRESS, PORT);
-                PrintWriter out = new PrintWriter(socket.getOutputStream(), true);
-                BufferedReader in  = new BufferedReader(new InputStreamReader(socket.getInputStream()))
-        ) {
-            try (Scanner scanner = new Scanner(System.in)) {
-                Thread listenerThread = new Thread(() -> { // thread para ouvir mensagens do servidor
-                    String serverMessage;
-                    try {
-                        while ((serverMessage = in.readLine()) != null && inGame) { // enquanto houver mensagens do servidor
-                            if (serverMessage.startsWith("PLAYER_ID")) {
-                                playerId = Integer.parseInt(serverMessage.substring(10));
-                                System.out.println("Você é o Jogador " + playerId);
-                            } else if (serverMessage.startsWith("VISIBLE_CARD")) {
-                                System.out.println("Sua carta visível: " + serverMessage.substring(13));
-                            } else if (serverMessage.startsWith("HIDDEN_CARD")) {
-                                System.out.println("Sua carta oculta: " + serverMessage.substring(12));
-                            } else if (serverMessage.startsWith("OPPONENT_VISIBLE_CARD")) {
-                                System.out.println("Carta visível do oponente: " + serverMessage.substring(21));
-                            } else if (serverMessage.startsWith("LIVES")) {
-                                System.out.println("Suas vidas: " + serverMessage.substring(6));
-                            } else if (serverMessage.startsWith("OPPONENT_LIVES")) {
-                                System.out.println("Vidas do oponente: " + serverMessage.substring(15));
-                            } else if (serverMessage.startsWith("ROUND")) {
-                                System.out.println(serverMessage);
-                            } else if (serverMessage.equals("YOUR_TURN")) {
-                                System.out.println("É a sua vez!");
-                                myTurn = true;
-                            } else if (serverMessage.startsWith("CARD")) {
-                                System.out.println("Você recebeu: " + serverMessage.substring(5));
-                            } else if (serverMessage.startsWith("TOTAL")) {
-                                System.out.println("Total atual: " + serverMessage.substring(6));
-                            } else if (serverMessage.equals("BUST")) {
-                                System.out.println("Você estourou!");
-                            } else if (serverMessage.equals("STAND")) {
-                                System.out.println("Você passou a vez.");
-                            } else if (serverMessage.equals("NOT_YOUR_TURN")) {
-                                System.out.println("Não é a sua vez.");
-                            } else if (serverMessage.startsWith("OPPONENT_TOTAL")) {
-                                System.out.println("Total do oponente: " + serverMessage.substring(15));
-                            } else if (serverMessage.startsWith("RESULT")) {
-                                System.out.println(serverMessage.substring(7));
-                            } else if (serverMessage.startsWith("GAME_OVER")) {
-                                inGame = false;
-                                System.out.println("Fim do jogo.");
-                            } else if (serverMessage.equals("GAME_ENDED")) {
-                                System.out.println("O jogo terminou.");
-                                inGame = false;
-                            }
-                        }
-                    } catch (IOException e) {
-                        System.out.println("Desconectado do servidor.");
-                    }
-                });
-                listenerThread.start();
+        InputStream in;
+        try {
+            in = connect(false);
+        } catch (IOException e) {
+            System.out.println("Erro ao conectar-se ao servidor.");
+            return;
+        }
+        try (Scanner scanner = new Scanner(System.in)) {
+            Thread listenerThread = new Thread(() -> listen(in)); // thread para ouvir mensagens do servidor
+            listenerThread.start();
 
-                // thread principal do cliente
+            // thread principal do cliente: dorme até ser a vez do jogador
+            try {
                 while (inGame) {
-                    if (myTurn) {
+                    myTurn.acquire();
+                    if (!inGame) break;
+                    boolean answered = false;
+                    while (!answered) {
                         System.out.println("Digite 'HIT' para pedir outra carta ou 'STAND' para passar a vez.");
                         String input = scanner.nextLine();
                         if (input.equalsIgnoreCase("HIT") || input.equalsIgnoreCase("STAND")) {
-                            out.println(input.toUpperCase()); // Send action to the server
-                            myTurn = false;
+                            try {
+                                sendAction(input.equalsIgnoreCase("HIT")); // Send action to the server
+                            } catch (IOException e) {
+                                System.out.println("Jogada não enviada: conexão perdida.");
+                            }
+                            answered = true;
                         } else {
                             System.out.println("Entrada inválida.");
                         }
                     }
-
-                    // Small pause to avoid busy loop
-//                    try {
-//                        Thread.sleep(100);
-//                    } catch (InterruptedException e) {
-//                        e.printStackTrace();
-//                    }
                 }
 
                 // Wait for the listener thread to finish
-                try {
-                    listenerThread.join();
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
+                listenerThread.join();
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+        }
+        closeSocket();
+        System.out.println(watch == null ? "Obrigado por jogar!" : "Obrigado por assistir!");
+    }
+
+    // Abre a conexão e se apresenta: HELLO como jogador novo, ou RESUME com o token da sessão
+    private synchronized InputStream connect(boolean resume) throws IOException {
+        closeSocket();
+        socket = new Socket(host, port);
+        out = socket.getOutputStream();
+        if (watch != null) {
+            out.write(ServerReader.watch(binary, watch));
+        } else if (!resume) {
+            out.write(ServerReader.hello(binary, name));
+        } else if (binary) {
+            out.write(ServerReader.RESUME);
+            new DataOutputStream(out).writeLong(sessionToken);
+        } else {
+            out.write(("RESUME " + HexFormat.of().toHexDigits(sessionToken) + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+        out.flush();
+        return socket.getInputStream();
+    }
+
+    private synchronized void closeSocket() {
+        if (socket == null) return;
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // Já fechado
+        }
+    }
+
+    private void listen(InputStream in) {
+        while (in != null) {
+            try {
+                if (binary) {
+                    ServerReader.readBinary(in, this);
+                } else {
+                    ServerReader.readText(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)), this);
                 }
+            } catch (IOException e) {
+                // Conexão perdida: tenta retomar abaixo
+            }
+            if (redirected) {
+                redirected = false;
+                in = follow();
+                continue;
+            }
+            in = inGame ? reconnect() : null;
+        }
+        if (inGame) System.out.println("Desconectado do servidor.");
+        inGame = false;
+        myTurn.release(); // Acorda a thread principal se ela estiver esperando a vez
+    }
+
+    private InputStream reconnect() { // Dentro do prazo do servidor o assento continua guardado
+        if (sessionToken == 0) return null; // Ainda na fila: não há assento para retomar
+        System.out.println("Conexão perdida. Tentando reconectar...");
+        for (int attempt = 1; attempt <= RECONNECT_ATTEMPTS; attempt++) {
+            try {
+                Thread.sleep(RECONNECT_DELAY_MILLIS);
+                return connect(true);
+            } catch (IOException e) {
+                // Servidor ainda inacessível: próxima tentativa
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
             }
+        }
+        return null;
+    }
+
+    private InputStream follow() { // Repete a primeira mensagem no nó indicado pelo REDIRECT
+        if (++redirects > MAX_REDIRECTS) {
+            System.out.println("O servidor redirecionou a conexão muitas vezes seguidas.");
+            return null;
+        }
+        try {
+            return connect(sessionToken != 0);
+        } catch (IOException e) {
+            System.out.println("Erro ao conectar-se a " + host + ":" + port + ".");
+            return null;
+        }
+    }
 
-            System.out.println("Obrigado por jogar!");
+    private synchronized void sendAction(boolean hit) throws IOException {
+        if (binary) {
+            out.write(hit ? ServerReader.HIT : ServerReader.STAND_COMMAND);
+        } else {
+            out.write((hit ? "HIT\n" : "STAND\n").getBytes(StandardCharsets.UTF_8));
+        }
+        out.flush();
+    }
 
+    @Override
+    public synchronized void onPing() { // Responde ao batimento do servidor
+        try {
+            if (binary) {
+                out.write(ServerReader.PONG);
+            } else {
+                out.write("PONG\n".getBytes(StandardCharsets.UTF_8));
+            }
+            out.flush();
         } catch (IOException e) {
-            System.out.println("Erro ao conectar-se ao servidor.");
+            System.out.println("Desconectado do servidor.");
+        }
+    }
+
+    @Override
+    public void onPlayerId(int playerId) {
+        this.playerId = playerId;
+        redirects = 0;
+        System.out.println("Você é o Jogador " + playerId);
+    }
+
+    @Override
+    public void onVisibleCard(int card) {
+        System.out.println("Sua carta visível: " + Cards.name(card));
+    }
+
+    @Override
+    public void onHiddenCard(int card) {
+        System.out.println("Sua carta oculta: " + Cards.name(card));
+    }
+
+    @Override
+    public void onDealerCard(int card) {
+        System.out.println("Carta aberta do dealer: " + Cards.name(card));
+    }
+
+    @Override
+    public void onSeat(int seat, int lives, int card) {
+        if (seat == playerId) return;
+        if (card < 0) {
+            System.out.println("Jogador " + seat + ": fora do jogo.");
+        } else {
+            System.out.println("Jogador " + seat + ": " + lives + " vida(s), carta visível " + Cards.name(card));
         }
     }
+
+    @Override
+    public void onYourTurn() {
+        System.out.println("É a sua vez!");
+        myTurn.release();
+    }
+
+    @Override
+    public void onNotYourTurn() {
+        System.out.println("Não é a sua vez.");
+    }
+
+    @Override
+    public void onCard(int card) {
+        System.out.println("Você recebeu: " + Cards.name(card));
+    }
+
+    @Override
+    public void onTotal(int total) {
+        System.out.println("Total atual: " + total);
+    }
+
+    @Override
+    public void onBust() {
+        System.out.println("Você estourou!");
+    }
+
+    @Override
+    public void onStand() {
+        System.out.println("Você passou a vez.");
+    }
+
+    @Override
+    public void onDealerTotal(int total) {
+        System.out.println("Total do dealer: " + total);
+    }
+
+    @Override
+    public void onResult(String result) {
+        System.out.println(result);
+    }
+
+    @Override
+    public void onLives(int lives) {
+        System.out.println("Suas vidas: " + lives);
+    }
+
+    @Override
+    public void onRound(int round) {
+        System.out.println("ROUND " + round + ". Vale " + round + " vida(s).");
+    }
+
+    @Override
+    public void onGameOver(String result) {
+        inGame = false;
+        System.out.println("Fim do jogo.");
+    }
+
+    @Override
+    public void onGameEnded() {
+        System.out.println("O jogo terminou.");
+        inGame = false;
+    }
+
+    @Override
+    public void onSession(long token) {
+        sessionToken = token;
+    }
+
+    @Override
+    public void onSync(int round, int lives, int turnSeat, int dealerCard, int[] hand) {
+        System.out.println("Reconectado. ROUND " + round + ", suas vidas: " + lives);
+        System.out.println("Carta aberta do dealer: " + Cards.name(dealerCard));
+        for (int card : hand) System.out.println("Sua carta: " + Cards.name(card));
+        if (turnSeat != 0 && turnSeat != playerId) System.out.println("Vez do Jogador " + turnSeat + ".");
+    }
+
+    @Override
+    public void onSessionExpired() {
+        sessionToken = 0;
+        System.out.println("O assento não foi guardado. Procurando uma nova mesa...");
+    }
+
+    @Override
+    public void onProfile(int lives, int rating, int won, int lost) {
+        System.out.println("Bem-vindo, " + name + ". Saldo: " + lives + " vida(s), rating " + rating + ", " + won
+                + " vitória(s) e " + lost + " derrota(s).");
+    }
+
+    @Override
+    public void onNameInUse() {
+        System.out.println("O nome " + name + " já está em uso. Jogando sem perfil.");
+    }
+
+    @Override
+    public void onWatching(int tableId) {
+        redirects = 0;
+        System.out.println("Assistindo à mesa " + tableId + ".");
+    }
+
+    @Override
+    public void onSettle(int dealerTotal, int[] seats, int[] totals) {
+        StringBuilder line = new StringBuilder("Acerto da rodada. Dealer: " + dealerTotal);
+        for (int i = 0; i < seats.length; i++) line.append(", Jogador ").append(seats[i]).append(": ").append(totals[i]);
+        System.out.println(line);
+    }
+
+    @Override
+    public synchronized void onRedirect(String host, int port) {
+        this.host = host;
+        this.port = port;
+        redirected = true;
+    }
+
+    @Override
+    public void onBusy() {
+        System.out.println("Servidor lotado. Tente novamente mais tarde.");
+        inGame = false;
+    }
+
+    @Override
+    public void onWatchEnded() {
+        System.out.println("A mesa terminou.");
+        inGame = false;
+    }
+
+    @Override
+    public void onOpponentLeft() {
+        sessionToken = 0;
+        System.out.println("Seu oponente saiu. Procurando uma nova mesa...");
+    }
+
+    @Override
+    public boolean isFinished() {
+        return !inGame || redirected;
+    }
 }
@@ -0,0 +1,31 @@
+package client;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+public enum BotStrategy { // Decisão de HIT/STAND dos jogadores simulados
+    STAND { // Sempre para
+        @Override
+        public boolean hit(int total, boolean soft, int dealerCard) {
+            return false;
+        }
+    },
+    BASIC { // Estratégia básica simplificada, olhando a carta aberta do dealer
+        @Override
+        public boolean hit(int total, boolean soft, int dealerCard) {
+            int upValue = Cards.value(dealerCard) == 1 ? 11 : Cards.value(dealerCard);
+            if (soft) return total <= 17;
+            if (total <= 11) return true;
+            if (total == 12) return upValue < 4 || upValue > 6;
+            if (total <= 16) return upValue >= 7;
+            return false;
+        }
+    },
+    RANDOM { // HIT ou STAND ao acaso, sem passar de 21 de propósito
+        @Override
+        public boolean hit(int total, boolean soft, int dealerCard) {
+            return total < 21 && ThreadLocalRandom.current().nextBoolean();
+        }
+    };
+
+    public abstract boolean hit(int total, boolean soft, int dealerCard);
+}
@@ -0,0 +1,43 @@
+package client;
+
+public final class Cards { // Código de carta do protocolo: valor (1 a 13) nos 4 bits altos, naipe nos baixos
+    private static final String[] SUITS = {"Copas", "Ouros", "Espadas", "Paus"};
+
+    private Cards() {
+    }
+
+    public static int rank(int code) {
+        return code >> 4;
+    }
+
+    public static int value(int code) { // Ás vale 1, figuras valem 10
+        return Math.min(rank(code), 10);
+    }
+
+    public static String name(int code) {
+        String name = switch (rank(code)) {
+            case 1 -> "Ás";
+            case 11 -> "Valete";
+            case 12 -> "Dama";
+            case 13 -> "Rei";
+            default -> String.valueOf(rank(code));
+        };
+        return name + " de " + SUITS[code & 0x0F];
+    }
+
+    public static int parse(String text) { // Inverso de name: "Dama de Paus" -> código
+        int separator = text.indexOf(" de ");
+        String rank = text.substring(0, separator);
+        String suit = text.substring(separator + 4);
+        int number = switch (rank) {
+            case "Ás" -> 1;
+            case "Valete" -> 11;
+            case "Dama" -> 12;
+            case "Rei" -> 13;
+            default -> Integer.parseInt(rank);
+        };
+        int suitIndex = 0;
+        while (!SUITS[suitIndex].equals(suit)) suitIndex++;
+        return number << 4 | suitIndex;
+    }
+}
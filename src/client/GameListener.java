@@ -0,0 +1,97 @@
+package client;
+
+// Eventos recebidos do servidor, já decodificados (texto ou binário). Cartas chegam como código de um byte (ver Cards).
+// Os eventos têm implementação vazia, para quem só precisa de parte deles.
+public interface GameListener {
+    default void onPlayerId(int playerId) {
+    }
+
+    default void onVisibleCard(int card) {
+    }
+
+    default void onHiddenCard(int card) {
+    }
+
+    default void onYourTurn() {
+    }
+
+    default void onNotYourTurn() {
+    }
+
+    default void onCard(int card) {
+    }
+
+    default void onTotal(int total) {
+    }
+
+    default void onBust() {
+    }
+
+    default void onStand() {
+    }
+
+    default void onResult(String result) {
+    }
+
+    default void onLives(int lives) {
+    }
+
+    default void onRound(int round) {
+    }
+
+    default void onGameOver(String result) {
+    }
+
+    default void onGameEnded() {
+    }
+
+    default void onDealerCard(int card) { // Carta aberta do dealer, a cada rodada
+    }
+
+    default void onDealerTotal(int total) { // Total final do dealer, antes do resultado
+    }
+
+    default void onSeat(int seat, int lives, int card) { // Um jogador da mesa (TABLE); card é -1 se ele está fora
+    }
+
+    default void onPing() { // Batimento: quem implementa deve responder PONG, senão o servidor derruba a conexão
+    }
+
+    default void onSession(long token) { // Token para retomar o assento com RESUME se a conexão cair
+    }
+
+    // Estado do assento após um RESUME aceito; em seguida vem um onSeat por jogador da mesa
+    default void onSync(int round, int lives, int turnSeat, int dealerCard, int[] hand) {
+    }
+
+    default void onSessionExpired() { // RESUME recusado: o servidor pôs a conexão na fila como jogador novo
+    }
+
+    default void onProfile(int lives, int rating, int won, int lost) { // Perfil salvo do nome enviado no HELLO
+    }
+
+    default void onNameInUse() { // O nome já está em outra conexão: o jogo segue sem perfil
+    }
+
+    default void onWatching(int tableId) { // WATCH aceito; seguem a rodada, a carta do dealer e a mesa atuais
+    }
+
+    default void onWatchEnded() { // A mesa assistida acabou (ou não existe); o servidor não manda mais nada
+    }
+
+    default void onSettle(int dealerTotal, int[] seats, int[] totals) { // Acerto da rodada, para espectadores
+    }
+
+    // Cluster: o servidor mandou reconectar em outro nó e repetir a primeira mensagem (HELLO, RESUME ou WATCH). Quem
+    // não trata o redirect fica sem resposta
+    default void onRedirect(String host, int port) {
+    }
+
+    default void onBusy() { // Servidor lotado: a conexão foi recusada e será fechada
+    }
+
+    default void onOpponentLeft() { // O servidor devolveu o jogador à fila; a próxima mensagem é o novo PLAYER_ID
+    }
+
+    boolean isFinished(); // Quando true, o leitor para de processar mensagens
+}
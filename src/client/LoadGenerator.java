@@ -0,0 +1,319 @@
+package client;
+
+import server.Histogram;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Gerador de carga sem interface: abre N jogadores simulados contra um servidor e mede a capacidade.
+// Cada jogador roda numa thread virtual e, ao fim de cada jogo, reconecta e joga de novo até o tempo acabar.
+// Propriedades: -Dload.players=100 -Dload.seconds=30 -Dload.strategy=stand|basic|random
+//               -Dload.names=bot (cada jogador se identifica como bot0, bot1... e usa um perfil; vazio = anônimos)
+//               -Dload.watchers=0 (espectadores, cada um assistindo a uma mesa qualquer com WATCH 0)
+//               -Dload.slowWatchers=0 (espectadores que nunca leem o socket, para testar o corte dos lentos)
+//               -Dblackjack.host=localhost -Dblackjack.port=12345 -Dblackjack.protocol=text|binary
+public class LoadGenerator {
+    private static final long BUSY_BACKOFF_MILLIS = 500; // Espera antes de reconectar depois de um BUSY
+
+    private final String host = System.getProperty("blackjack.host", "localhost");
+    private final boolean binary = "binary".equals(System.getProperty("blackjack.protocol"));
+    private final int port = Integer.getInteger("blackjack.port", binary ? 12346 : 12345);
+    private final int players = Integer.getInteger("load.players", 100);
+    private final int seconds = Integer.getInteger("load.seconds", 30);
+    private final BotStrategy strategy = BotStrategy.valueOf(System.getProperty("load.strategy", "basic").toUpperCase());
+    private final String names = System.getProperty("load.names", ""); // Prefixo dos nomes; vazio = anônimos
+    private final int watchers = Integer.getInteger("load.watchers", 0);
+    private final int slowWatchers = Integer.getInteger("load.slowWatchers", 0);
+
+    private final LongAdder rounds = new LongAdder(); // Rodadas concluídas (RESULT recebidos)
+    private final LongAdder games = new LongAdder(); // Jogos concluídos
+    private final LongAdder errors = new LongAdder(); // Conexões que falharam
+    private final LongAdder settles = new LongAdder(); // Acertos de rodada (SETTLE) recebidos pelos espectadores
+    private final LongAdder redirects = new LongAdder(); // REDIRECT recebidos de um cluster
+    private final LongAdder busyReplies = new LongAdder(); // Conexões recusadas com BUSY
+    private final Histogram hitLatency = new Histogram(); // HIT -> TOTAL, em µs
+    private final AtomicLong deadline = new AtomicLong();
+
+    public static void main(String[] args) throws InterruptedException {
+        new LoadGenerator().run();
+    }
+
+    public void run() throws InterruptedException {
+        System.out.println("Gerando carga: " + players + " jogadores, estratégia " + strategy + ", " + seconds + " s, "
+                + host + ":" + port + (binary ? " (binário)" : " (texto)"));
+        long start = System.nanoTime();
+        deadline.set(start + seconds * 1_000_000_000L);
+        Thread[] threads = new Thread[players + watchers + slowWatchers];
+        for (int i = 0; i < players; i++) {
+            String name = names.isEmpty() ? null : names + i;
+            threads[i] = Thread.ofVirtual().name("bot-", i).start(() -> playUntilDeadline(name));
+        }
+        for (int i = 0; i < watchers + slowWatchers; i++) {
+            boolean slow = i >= watchers;
+            threads[players + i] = Thread.ofVirtual().name("watcher-", i).start(() -> watchUntilDeadline(slow));
+        }
+
+        long lastRounds = 0;
+        while (System.nanoTime() < deadline.get()) {
+            Thread.sleep(1000);
+            long total = rounds.sum();
+            System.out.println("rodadas/s: " + (total - lastRounds) + "  HIT p50: " + hitLatency.percentile(50)
+                    + " µs  p99: " + hitLatency.percentile(99) + " µs");
+            lastRounds = total;
+        }
+        for (Thread thread : threads) thread.join();
+
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Rodadas: %d (%.1f/s)  Jogos: %d  Erros: %d%n", rounds.sum(), rounds.sum() / elapsed, games.sum(), errors.sum());
+        if (watchers > 0) System.out.println("Acertos vistos pelos espectadores: " + settles.sum());
+        if (redirects.sum() > 0) System.out.println("Redirecionamentos para outros nós: " + redirects.sum());
+        if (busyReplies.sum() > 0) System.out.println("Conexões recusadas com BUSY: " + busyReplies.sum());
+        System.out.println("Latência HIT -> TOTAL: p50 " + hitLatency.percentile(50) + " µs, p99 " + hitLatency.percentile(99)
+                + " µs, p99.9 " + hitLatency.percentile(99.9) + " µs (" + hitLatency.count() + " amostras)");
+    }
+
+    private void playUntilDeadline(String name) {
+        String nodeHost = host; // Cada jogo começa pelo servidor configurado; um REDIRECT vale só para a conexão seguinte
+        int nodePort = port;
+        while (System.nanoTime() < deadline.get()) {
+            try (Socket socket = new Socket(nodeHost, nodePort)) {
+                socket.setTcpNoDelay(true);
+                socket.setSoTimeout(Math.max(1000, (int) ((deadline.get() - System.nanoTime()) / 1_000_000)));
+                Bot bot = new Bot(socket.getOutputStream());
+                bot.hello(name);
+                InputStream in = socket.getInputStream();
+                if (binary) {
+                    ServerReader.readBinary(in, bot);
+                } else {
+                    ServerReader.readText(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)), bot);
+                }
+                nodeHost = bot.redirectHost == null ? host : bot.redirectHost;
+                nodePort = bot.redirectHost == null ? port : bot.redirectPort;
+                if (bot.busy) Thread.sleep(BUSY_BACKOFF_MILLIS);
+            } catch (IOException e) {
+                if (System.nanoTime() < deadline.get()) errors.increment();
+                nodeHost = host;
+                nodePort = port;
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    // Espectador: assiste a uma mesa até ela acabar e passa para outra. Um lento manda WATCH e nunca mais lê
+    private void watchUntilDeadline(boolean slow) {
+        String nodeHost = host;
+        int nodePort = port;
+        while (System.nanoTime() < deadline.get()) {
+            try (Socket socket = new Socket(nodeHost, nodePort)) {
+                socket.setSoTimeout(Math.max(1000, (int) ((deadline.get() - System.nanoTime()) / 1_000_000)));
+                OutputStream out = socket.getOutputStream();
+                out.write(ServerReader.watch(binary, 0));
+                out.flush();
+                InputStream in = socket.getInputStream();
+                if (slow) {
+                    Thread.sleep(Math.max(0, (deadline.get() - System.nanoTime()) / 1_000_000));
+                    continue;
+                }
+                Watcher watcher = new Watcher(out);
+                if (binary) {
+                    ServerReader.readBinary(in, watcher);
+                } else {
+                    ServerReader.readText(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)), watcher);
+                }
+                nodeHost = watcher.redirectHost == null ? host : watcher.redirectHost;
+                nodePort = watcher.redirectHost == null ? port : watcher.redirectPort;
+                if (watcher.busy) {
+                    Thread.sleep(BUSY_BACKOFF_MILLIS);
+                } else if (!watcher.watching && watcher.redirectHost == null) {
+                    Thread.sleep(100); // Nenhuma mesa ativa ainda
+                }
+            } catch (IOException e) {
+                if (System.nanoTime() < deadline.get()) errors.increment();
+                nodeHost = host;
+                nodePort = port;
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    // Uma conexão simulada: responde aos batimentos, guarda o nó indicado por um REDIRECT (cluster) e nota o BUSY
+    private abstract class Session implements GameListener {
+        protected final OutputStream out;
+        protected boolean finished;
+        protected String redirectHost; // null sem REDIRECT
+        protected int redirectPort;
+        protected boolean busy; // BUSY recebido: o servidor recusou a conexão
+
+        Session(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void onPing() {
+            try {
+                out.write(binary ? new byte[]{ServerReader.PONG} : "PONG\n".getBytes(StandardCharsets.UTF_8));
+                out.flush();
+            } catch (IOException e) {
+                finished = true;
+            }
+        }
+
+        @Override
+        public void onRedirect(String host, int port) {
+            redirects.increment();
+            redirectHost = host;
+            redirectPort = port;
+            finished = true;
+        }
+
+        @Override
+        public void onBusy() {
+            busyReplies.increment();
+            busy = true;
+            finished = true;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished;
+        }
+    }
+
+    private class Watcher extends Session {
+        private boolean watching; // WATCHING recebido
+
+        Watcher(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void onWatching(int tableId) {
+            watching = true;
+        }
+
+        @Override
+        public void onSettle(int dealerTotal, int[] seats, int[] totals) {
+            settles.increment();
+        }
+
+        @Override
+        public void onWatchEnded() {
+            finished = true;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished || System.nanoTime() >= deadline.get();
+        }
+    }
+
+    // Jogador simulado: decide na própria thread de leitura, sem laço de espera
+    private class Bot extends Session {
+        private int hardTotal; // Ases valendo 1
+        private int aces;
+        private int dealerCard;
+        private long hitSentAt; // 0 quando não há HIT pendente
+
+        Bot(OutputStream out) {
+            super(out);
+        }
+
+        private void add(int card) {
+            hardTotal += Cards.value(card);
+            if (Cards.rank(card) == 1) aces++;
+        }
+
+        private int total() {
+            return aces > 0 && hardTotal + 10 <= 21 ? hardTotal + 10 : hardTotal;
+        }
+
+        void hello(String name) throws IOException { // Anuncia-se como jogador novo, sem esperar a janela do RESUME
+            out.write(ServerReader.hello(binary, name));
+            out.flush();
+        }
+
+        private void act(boolean hit) {
+            try {
+                if (binary) {
+                    out.write(hit ? ServerReader.HIT : ServerReader.STAND_COMMAND);
+                } else {
+                    out.write((hit ? "HIT\n" : "STAND\n").getBytes(StandardCharsets.UTF_8));
+                }
+                out.flush();
+                if (hit) hitSentAt = System.nanoTime();
+            } catch (IOException e) {
+                finished = true;
+            }
+        }
+
+        @Override
+        public void onYourTurn() {
+            if (System.nanoTime() >= deadline.get()) {
+                finished = true;
+                return;
+            }
+            boolean soft = aces > 0 && hardTotal + 10 <= 21;
+            act(strategy.hit(total(), soft, dealerCard));
+        }
+
+        @Override
+        public void onVisibleCard(int card) {
+            hardTotal = 0;
+            aces = 0;
+            add(card);
+        }
+
+        @Override
+        public void onHiddenCard(int card) {
+            add(card);
+        }
+
+        @Override
+        public void onCard(int card) {
+            add(card);
+        }
+
+        @Override
+        public void onTotal(int total) {
+            if (hitSentAt != 0) {
+                hitLatency.record((System.nanoTime() - hitSentAt) / 1000);
+                hitSentAt = 0;
+            }
+        }
+
+        @Override
+        public void onDealerCard(int card) {
+            dealerCard = card;
+        }
+
+        @Override
+        public void onResult(String result) {
+            rounds.increment();
+        }
+
+        @Override
+        public void onGameOver(String result) {
+            games.increment();
+            finished = true;
+        }
+
+        @Override
+        public void onGameEnded() {
+            finished = true;
+        }
+
+        @Override
+        public void onOpponentLeft() { // Um HIT pendente foi ignorado pelo servidor
+            hitSentAt = 0;
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package client;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+public final class ServerReader { // Lê as mensagens do servidor e as entrega a um GameListener
+    // Opcodes do protocolo binário (servidor -> cliente)
+    private static final int PLAYER_ID = 0x01, VISIBLE_CARD = 0x02, HIDDEN_CARD = 0x03,
+            YOUR_TURN = 0x05, NOT_YOUR_TURN = 0x06, CARD = 0x07, TOTAL = 0x08, BUST = 0x09, STAND = 0x0A,
+            RESULT = 0x0C, LIVES = 0x0D, ROUND = 0x0F, GAME_OVER = 0x10, GAME_ENDED = 0x11, OPPONENT_LEFT = 0x12,
+            DEALER_CARD = 0x13, DEALER_TOTAL = 0x14, TABLE = 0x15, PING = 0x16,
+            SESSION = 0x17, SYNC = 0x18, SESSION_EXPIRED = 0x19, PROFILE = 0x1A, NAME_IN_USE = 0x1B,
+            WATCHING = 0x1C, WATCH_ENDED = 0x1D, SETTLE = 0x1E, REDIRECT = 0x1F,
+            BUSY = 0x20;
+    // Comandos binários (cliente -> servidor)
+    public static final int HIT = 0x01, STAND_COMMAND = 0x02, PONG = 0x03, HELLO = 0x04, RESUME = 0x05, LOGIN = 0x06,
+            WATCH = 0x07;
+
+    // Textos dos resultados, indexados pelo código enviado pelo protocolo binário (server.Outcome). null: códigos do
+    // jogo a dois, que o servidor não envia mais
+    private static final String[] OUTCOMES = {
+            null,
+            "Você estourou. Você perdeu.",
+            null,
+            "Você ganhou!",
+            "Você perdeu.",
+            "Empate.",
+            null,
+            "Você perdeu todas as suas vidas. Você perdeu o jogo.",
+            null,
+            "O dealer estourou. Você ganhou!",
+            "Você é o último jogador com vidas. Você venceu o jogo!",
+            "Todos os jogadores perderam todas as vidas. Fim de jogo."
+    };
+
+    private ServerReader() {
+    }
+
+    public static byte[] hello(boolean binary, String name) { // HELLO de um jogador novo; com nome, carrega o perfil
+        byte[] login = name == null ? null : name.getBytes(StandardCharsets.UTF_8);
+        if (binary) {
+            if (login == null) return new byte[]{HELLO};
+            byte[] command = new byte[2 + login.length];
+            command[0] = LOGIN;
+            command[1] = (byte) login.length;
+            System.arraycopy(login, 0, command, 2, login.length);
+            return command;
+        }
+        return (login == null ? "HELLO\n" : "HELLO " + name + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    public static byte[] watch(boolean binary, int tableId) { // Entra como espectador; 0 = qualquer mesa ativa
+        if (!binary) return ("WATCH " + tableId + "\n").getBytes(StandardCharsets.UTF_8);
+        byte[] command = new byte[6];
+        command[0] = WATCH;
+        int length = 1;
+        do {
+            command[length++] = (byte) (tableId & 0x7F | (tableId > 0x7F ? 0x80 : 0));
+            tableId >>>= 7;
+        } while (tableId != 0);
+        return Arrays.copyOf(command, length);
+    }
+
+    public static void readText(BufferedReader in, GameListener listener) throws IOException {
+        String serverMessage;
+        // Enquanto houver mensagens do servidor; isFinished antes de ler, como no binário, para não esperar uma linha que
+        // talvez nunca venha (depois de WATCH_ENDED o servidor não manda mais nada)
+        while (!listener.isFinished() && (serverMessage = in.readLine()) != null) {
+            int space = serverMessage.indexOf(' ');
+            String command = space < 0 ? serverMessage : serverMessage.substring(0, space);
+            String argument = space < 0 ? "" : serverMessage.substring(space + 1);
+            switch (command) {
+                case "PLAYER_ID" -> listener.onPlayerId(Integer.parseInt(argument));
+                case "VISIBLE_CARD" -> listener.onVisibleCard(Cards.parse(argument));
+                case "HIDDEN_CARD" -> listener.onHiddenCard(Cards.parse(argument));
+                case "YOUR_TURN" -> listener.onYourTurn();
+                case "NOT_YOUR_TURN" -> listener.onNotYourTurn();
+                case "CARD" -> listener.onCard(Cards.parse(argument));
+                case "TOTAL" -> listener.onTotal(Integer.parseInt(argument));
+                case "BUST" -> listener.onBust();
+                case "STAND" -> listener.onStand();
+                case "RESULT" -> listener.onResult(argument);
+                case "LIVES" -> listener.onLives(Integer.parseInt(argument));
+                case "ROUND" -> listener.onRound(Integer.parseInt(argument.substring(0, argument.indexOf('.'))));
+                case "GAME_OVER" -> listener.onGameOver(argument);
+                case "GAME_ENDED" -> listener.onGameEnded();
+                case "OPPONENT_LEFT" -> listener.onOpponentLeft();
+                case "DEALER_CARD" -> listener.onDealerCard(Cards.parse(argument));
+                case "DEALER_TOTAL" -> listener.onDealerTotal(Integer.parseInt(argument));
+                case "TABLE" -> readTable(argument, listener);
+                case "PING" -> listener.onPing();
+                case "SESSION" -> listener.onSession(HexFormat.fromHexDigitsToLong(argument));
+                case "SYNC" -> readSync(argument, listener);
+                case "SESSION_EXPIRED" -> listener.onSessionExpired();
+                case "PROFILE" -> {
+                    String[] fields = argument.split(";", 4);
+                    listener.onProfile(Integer.parseInt(fields[0]), Integer.parseInt(fields[1]),
+                            Integer.parseInt(fields[2]), Integer.parseInt(fields[3]));
+                }
+                case "NAME_IN_USE" -> listener.onNameInUse();
+                case "WATCHING" -> listener.onWatching(Integer.parseInt(argument));
+                case "WATCH_ENDED" -> listener.onWatchEnded();
+                case "SETTLE" -> readSettle(argument, listener);
+                case "REDIRECT" -> {
+                    int colon = argument.lastIndexOf(':');
+                    listener.onRedirect(argument.substring(0, colon), Integer.parseInt(argument.substring(colon + 1)));
+                }
+                case "BUSY" -> listener.onBusy();
+                default -> { } // Mensagem desconhecida: ignorada
+            }
+        }
+    }
+
+    public static void readBinary(InputStream stream, GameListener listener) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(stream));
+        int opcode;
+        while (!listener.isFinished() && (opcode = in.read()) >= 0) {
+            switch (opcode) {
+                case PLAYER_ID -> listener.onPlayerId(readVarint(in));
+                case VISIBLE_CARD -> listener.onVisibleCard(in.readUnsignedByte());
+                case HIDDEN_CARD -> listener.onHiddenCard(in.readUnsignedByte());
+                case YOUR_TURN -> listener.onYourTurn();
+                case NOT_YOUR_TURN -> listener.onNotYourTurn();
+                case CARD -> listener.onCard(in.readUnsignedByte());
+                case TOTAL -> listener.onTotal(readVarint(in));
+                case BUST -> listener.onBust();
+                case STAND -> listener.onStand();
+                case RESULT -> listener.onResult(OUTCOMES[in.readUnsignedByte()]);
+                case LIVES -> listener.onLives(readVarint(in));
+                case ROUND -> listener.onRound(readVarint(in));
+                case GAME_OVER -> listener.onGameOver(OUTCOMES[in.readUnsignedByte()]);
+                case GAME_ENDED -> listener.onGameEnded();
+                case OPPONENT_LEFT -> listener.onOpponentLeft();
+                case DEALER_CARD -> listener.onDealerCard(in.readUnsignedByte());
+                case DEALER_TOTAL -> listener.onDealerTotal(readVarint(in));
+                case PING -> listener.onPing();
+                case TABLE -> readSeats(in, listener);
+                case SESSION -> listener.onSession(in.readLong());
+                case SYNC -> {
+                    int round = readVarint(in);
+                    int lives = readVarint(in);
+                    int turnSeat = readVarint(in);
+                    int dealerCard = in.readUnsignedByte();
+                    int[] hand = new int[readVarint(in)];
+                    for (int i = 0; i < hand.length; i++) hand[i] = in.readUnsignedByte();
+                    listener.onSync(round, lives, turnSeat, dealerCard, hand);
+                    readSeats(in, listener);
+                }
+                case SESSION_EXPIRED -> listener.onSessionExpired();
+                case PROFILE -> listener.onProfile(readVarint(in), readVarint(in), readVarint(in), readVarint(in));
+                case NAME_IN_USE -> listener.onNameInUse();
+                case WATCHING -> listener.onWatching(readVarint(in));
+                case WATCH_ENDED -> listener.onWatchEnded();
+                case SETTLE -> {
+                    int dealerTotal = readVarint(in);
+                    int[] seats = new int[readVarint(in)];
+                    int[] totals = new int[seats.length];
+                    for (int i = 0; i < seats.length; i++) {
+                        seats[i] = readVarint(in);
+                        totals[i] = readVarint(in);
+                    }
+                    listener.onSettle(dealerTotal, seats, totals);
+                }
+                case REDIRECT -> {
+                    byte[] host = new byte[in.readUnsignedByte()];
+                    in.readFully(host);
+                    listener.onRedirect(new String(host, StandardCharsets.UTF_8), readVarint(in));
+                }
+                case BUSY -> listener.onBusy();
+                default -> throw new IOException("Opcode desconhecido: " + opcode);
+            }
+        }
+    }
+
+    private static void readSeats(DataInputStream in, GameListener listener) throws IOException {
+        int seats = readVarint(in);
+        for (int i = 0; i < seats; i++) {
+            int seat = readVarint(in);
+            int lives = readVarint(in);
+            int card = in.readUnsignedByte();
+            listener.onSeat(seat, lives, card == 0xFF ? -1 : card);
+        }
+    }
+
+    // "3;5;2;7 de Paus;Rei de Copas,2 de Ouros;1:5:Rei de Copas;2:3:4 de Ouros"
+    private static void readSync(String argument, GameListener listener) {
+        String[] fields = argument.split(";", 6);
+        String[] cards = fields[4].isEmpty() ? new String[0] : fields[4].split(",");
+        int[] hand = new int[cards.length];
+        for (int i = 0; i < cards.length; i++) hand[i] = Cards.parse(cards[i]);
+        listener.onSync(Integer.parseInt(fields[0]), Integer.parseInt(fields[1]), Integer.parseInt(fields[2]),
+                Cards.parse(fields[3]), hand);
+        readTable(fields[5], listener);
+    }
+
+    private static void readSettle(String argument, GameListener listener) { // "19;1:20;2:22"
+        String[] fields = argument.split(";");
+        int[] seats = new int[fields.length - 1];
+        int[] totals = new int[seats.length];
+        for (int i = 0; i < seats.length; i++) {
+            String[] seat = fields[i + 1].split(":", 2);
+            seats[i] = Integer.parseInt(seat[0]);
+            totals[i] = Integer.parseInt(seat[1]);
+        }
+        listener.onSettle(Integer.parseInt(fields[0]), seats, totals);
+    }
+
+    private static void readTable(String argument, GameListener listener) { // "1:5:7 de Paus;2:0:-"
+        for (String seat : argument.split(";")) {
+            String[] fields = seat.split(":", 3);
+            int card = fields[2].equals("-") ? -1 : Cards.parse(fields[2]);
+            listener.onSeat(Integer.parseInt(fields[0]), Integer.parseInt(fields[1]), card);
+        }
+    }
+
+    private static int readVarint(DataInputStream in) throws IOException {
+        int value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
@@ -0,0 +1,180 @@
+package server;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+
+// Protocolo binário compacto: um byte de opcode (Message.opcode) seguido da carga, quando houver.
+// Números são varints (7 bits por byte), cartas ocupam um byte (valor << 4 | naipe) e resultados um byte (Outcome.code).
+// Do cliente para o servidor cada comando é um byte: 0x01 = HIT, 0x02 = STAND, 0x03 = PONG, 0x04 = HELLO,
+// 0x05 = RESUME seguido dos 8 bytes do token, 0x06 = HELLO com nome, seguido do tamanho e do nome em UTF-8,
+// e 0x07 = WATCH seguido do ID da mesa em varint (0 = qualquer mesa).
+public class BinaryProtocol implements Protocol {
+    public static final int HIT = 0x01;
+    public static final int STAND = 0x02;
+    public static final int PONG = 0x03;
+    public static final int HELLO = 0x04;
+    public static final int RESUME = 0x05;
+    public static final int LOGIN = 0x06;
+    public static final int WATCH = 0x07;
+
+    private int tokenBytes = -1; // Bytes do token de RESUME ainda por ler; -1 fora de um RESUME
+    private long token;
+    private byte[] name; // Nome do LOGIN sendo lido; null fora de um LOGIN
+    private int nameBytes = -1; // Bytes do nome ainda por ler; -1 enquanto falta o tamanho
+    private int watchShift = -1; // Bits já lidos do ID da mesa do WATCH; -1 fora de um WATCH
+    private int watchTable;
+
+    @Override
+    public void write(ByteArrayOutputStream out, Message message, int value) {
+        out.write(message.opcode);
+        if (message.payload == Message.Payload.NUMBER) {
+            writeVarint(out, value);
+        }
+    }
+
+    @Override
+    public void write(ByteArrayOutputStream out, Message message, Card card) {
+        out.write(message.opcode);
+        out.write(card.code());
+    }
+
+    @Override
+    public void write(ByteArrayOutputStream out, Message message, Outcome outcome) {
+        out.write(message.opcode);
+        out.write(outcome.code);
+    }
+
+    @Override
+    public void write(ByteArrayOutputStream out, Message message, long token) { // 8 bytes, big-endian
+        out.write(message.opcode);
+        for (int shift = 56; shift >= 0; shift -= 8) out.write((int) (token >>> shift));
+    }
+
+    @Override
+    public void write(ByteArrayOutputStream out, SeatState state) {
+        // Rodada, vidas, assento da vez e carta do dealer; quantidade e cartas da mão; assentos como em TABLE
+        out.write(Message.SYNC.opcode);
+        writeVarint(out, state.round());
+        writeVarint(out, state.lives());
+        writeVarint(out, state.turnSeat());
+        out.write(state.dealerCard().code());
+        writeVarint(out, state.hand().size());
+        for (Card card : state.hand()) out.write(card.code());
+        writeSeats(out, state.table());
+    }
+
+    @Override
+    public void write(ByteArrayOutputStream out, PlayerProfile profile) { // Vidas, rating, vitórias e derrotas
+        out.write(Message.PROFILE.opcode);
+        writeVarint(out, profile.lives());
+        writeVarint(out, profile.rating());
+        writeVarint(out, profile.won());
+        writeVarint(out, profile.lost());
+    }
+
+    @Override
+    public void write(ByteArrayOutputStream out, RoundTotals totals) { // Total do dealer, quantidade e pares assento/total
+        out.write(Message.SETTLE.opcode);
+        writeVarint(out, totals.dealerTotal());
+        writeVarint(out, totals.seats().length);
+        for (int i = 0; i < totals.seats().length; i++) {
+            writeVarint(out, totals.seats()[i]);
+            writeVarint(out, totals.totals()[i]);
+        }
+    }
+
+    @Override
+    public void write(ByteArrayOutputStream out, ClusterNode node) { // Tamanho e host em UTF-8, e a porta binária em varint
+        byte[] host = node.host().getBytes(StandardCharsets.UTF_8);
+        out.write(Message.REDIRECT.opcode);
+        out.write(host.length);
+        out.writeBytes(host);
+        writeVarint(out, node.binaryPort());
+    }
+
+    @Override
+    public byte[] encode(TableSnapshot snapshot) { // Opcode, quantidade e, por jogador: assento, vidas e carta (0xFF se fora)
+        ByteArrayOutputStream out = new ByteArrayOutputStream(2 + snapshot.size() * 3);
+        out.write(Message.TABLE.opcode);
+        writeSeats(out, snapshot);
+        return out.toByteArray();
+    }
+
+    private static void writeSeats(ByteArrayOutputStream out, TableSnapshot snapshot) {
+        writeVarint(out, snapshot.size());
+        for (int i = 0; i < snapshot.size(); i++) {
+            writeVarint(out, snapshot.seat(i));
+            writeVarint(out, snapshot.lives(i));
+            Card card = snapshot.visibleCard(i);
+            out.write(card == null ? 0xFF : card.code());
+        }
+    }
+
+    static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    @Override
+    public void decode(ByteBuffer in, ClientHandler player) {
+        while (in.hasRemaining()) {
+            if (tokenBytes > 0) {
+                token = token << 8 | (in.get() & 0xFF);
+                if (--tokenBytes == 0) {
+                    tokenBytes = -1;
+                    player.onMessage("RESUME " + HexFormat.of().toHexDigits(token));
+                }
+                continue;
+            }
+            if (name != null) {
+                readName(in.get(), player);
+                continue;
+            }
+            if (watchShift >= 0) {
+                byte b = in.get();
+                watchTable |= (b & 0x7F) << watchShift;
+                watchShift = (b & 0x80) != 0 && watchShift < 28 ? watchShift + 7 : -1; // No máximo 5 bytes
+                if (watchShift < 0) player.onMessage("WATCH " + watchTable);
+                continue;
+            }
+            switch (in.get()) {
+                case HIT -> player.onMessage("HIT");
+                case STAND -> player.onMessage("STAND");
+                case PONG -> player.onMessage("PONG");
+                case HELLO -> player.onMessage("HELLO");
+                case RESUME -> {
+                    token = 0;
+                    tokenBytes = 8;
+                }
+                case LOGIN -> {
+                    name = new byte[0];
+                    nameBytes = -1;
+                }
+                case WATCH -> {
+                    watchTable = 0;
+                    watchShift = 0;
+                }
+                default -> { } // Comando desconhecido: ignorado, como no protocolo de texto
+            }
+        }
+    }
+
+    private void readName(byte b, ClientHandler player) {
+        if (nameBytes < 0) { // Primeiro byte: tamanho
+            nameBytes = b & 0xFF;
+            name = new byte[nameBytes];
+        } else {
+            name[name.length - nameBytes--] = b;
+        }
+        if (nameBytes == 0) {
+            String login = new String(name, StandardCharsets.UTF_8);
+            name = null;
+            player.onMessage("HELLO " + login);
+        }
+    }
+}
@@ -1,112 +1,300 @@
 package server;
 
 import java.io.IOException;
-import java.net.ServerSocket;
-import java.net.Socket;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.lang.management.ManagementFactory;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class BlackJackServer {
-    private static final int PORT = 12345;
-    protected final List<ClientHandler> players = Collections.synchronizedList(new ArrayList<>()); // List of players
-    protected Deck deck;
-    protected boolean gameInProgress = false;
-    protected int currentPlayerIndex = 0;
-    protected int currentRound = 1; // Starts at round 1
+    private static final long BUSY_LINGER_MILLIS = 1000; // Tempo para o BUSY sair antes de a conexão ser fechada
+    static final int TABLE_SEQUENCE = 0xFF_FFFF; // 24 bits baixos do ID de mesa; o byte alto é o ID do nó
+    private final ServerConfig config;
+    protected final Map<Integer, Table> tables = new ConcurrentHashMap<>(); // Mesas ativas, por ID
+    private final AtomicInteger connections = new AtomicInteger(); // Vagas ocupadas pelas conexões aceitas
+    private final AtomicInteger nextTableId = new AtomicInteger(1); // Sequência das mesas deste nó; dá a volta
+    private final ExecutorService tableExecutor; // Pool que executa as mesas, uma thread por núcleo
+    private final TimerWheel timers = new TimerWheel(10, 512); // Agendador compartilhado, tick de 10 ms
+    private final Matchmaker matchmaker; // Fila de jogadores aguardando mesa
+    private final Journal journal; // Diário de eventos de todas as mesas
+    private final PlayerStore playerStore; // Perfis dos jogadores identificados; null se desativado
+    private final Map<Long, ClientHandler> sessions = new ConcurrentHashMap<>(); // Assentos que podem ser retomados, por token
+    private final SecureRandom tokens = new SecureRandom(); // Tokens imprevisíveis: quem tem o token tem o assento
+    private final ClusterDirectory cluster; // Outros nós e suas mesas; null no nó único
+    private final int node; // ID deste nó no cluster; 0 no nó único
+
+    public BlackJackServer(ServerConfig config) {
+        this(config, config.createJournal(), config.createPlayerStore(), config.createClusterDirectory());
+    }
+
+    public BlackJackServer(ServerConfig config, Journal journal, PlayerStore playerStore) {
+        this(config, journal, playerStore, null);
+    }
+
+    @SuppressWarnings("this-escape") // O matchmaking só usa o servidor depois de start()
+    public BlackJackServer(ServerConfig config, Journal journal, PlayerStore playerStore, ClusterDirectory cluster) {
+        this.config = config;
+        this.journal = journal;
+        this.playerStore = playerStore;
+        this.cluster = cluster;
+        this.node = cluster == null ? 0 : config.node;
+        this.tableExecutor = new ForkJoinPool(Runtime.getRuntime().availableProcessors(),
+                ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+        this.matchmaker = new Matchmaker(this, config.seats, config.matchWait);
+    }
 
     public static void main(String[] args) {
-        new BlackJackServer().startServer();
+        ServerConfig config = new ServerConfig();
+        Warmup.run(config); // Antes do servidor de verdade, que registra por último os seus medidores
+        if (config.warmupOnly) return;
+        new BlackJackServer(config).startServer();
     }
 
     public void startServer() {
-        System.out.println("Servidor BlackJack iniciado...");
-        try (ServerSocket serverSocket = new ServerSocket(PORT)) {
-            while (true) {
-                if (players.size() < 2) {
-                    Socket socket = serverSocket.accept();
-                    ClientHandler player = new ClientHandler(socket, players.size() + 1, this);
-                    players.add(player);
-                    player.start();
-                    System.out.println("Novo jogador conectado. Total de jogadores: " + players.size());
-                    if (players.size() == 2) {
-                        startGame();
-                    }
-                }
-            }
+        Metrics.gauge("tables_active", tables::size);
+        matchmaker.start();
+        if (cluster != null) cluster.start(Metrics.playersConnected::sum, tables::keySet);
+        try {
+            if (config.metricsPort > 0) new MetricsEndpoint(config.metricsPort).start();
+        } catch (IOException e) {
+            Log.error("Não foi possível abrir as métricas na porta " + config.metricsPort + ".", e);
+        }
+        Log.info("Servidor BlackJack iniciado na porta " + config.port + ", binário na porta " + config.binaryPort
+                + " (transporte: " + config.transport + ")...");
+        try {
+            config.createTransport(this).serve(config);
         } catch (IOException e) {
-            e.printStackTrace();
+            Log.error("Servidor encerrado.", e);
         }
     }
 
-    // Method to start the game
-    public void startGame() {
-        currentRound = 1; // Reset the round to 1 when starting a new game
-        deck = new Deck();
-        deck.shuffle();
-        gameInProgress = true;
+    void listening() { // Chamado pela camada de conexões com as portas abertas, antes do primeiro accept
+        long millis = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+        Metrics.gauge("startup_millis", () -> millis);
+        Log.info("Aceitando conexões " + millis + " ms após o início da JVM.");
+    }
 
-        // Distribute initial cards
-        synchronized (players) {
-            for (ClientHandler player : players) {
-                // Visible card
-                Card visibleCard = deck.drawCard();
-                player.setVisibleCard(visibleCard);
-                player.sendMessage("VISIBLE_CARD " + visibleCard);
+    // Chamado pela camada de conexões para cada novo cliente: o jogador entra na fila do matchmaking com o HELLO,
+    // ou após handshakeWait se não mandar nada (clientes antigos)
+    public ClientHandler connect(Connection connection) {
+        ClientHandler player = new ClientHandler(connection, this);
+        if (!reserveConnection()) { // Recusada: não ocupa vaga, nem enquanto o BUSY sai
+            Metrics.connectionsRejected.increment();
+            player.reject();
+            timers.schedule(BUSY_LINGER_MILLIS, connection::close);
+            return player;
+        }
+        Metrics.playersConnected.increment();
+        player.watchIdle(timers, config.heartbeat, config.idleTimeout);
+        timers.schedule(config.handshakeWait, player::admit);
+        return player;
+    }
 
-                // Hidden card
-                Card hiddenCard = deck.drawCard();
-                player.setHiddenCard(hiddenCard);
-                player.sendMessage("HIDDEN_CARD " + hiddenCard);
+    // Controle de admissão: com conexões demais ou a fila do matchmaking cheia, quem chega recebe BUSY na hora, em vez
+    // de entrar numa fila que só aumentaria a espera de todos. A vaga é reservada com CAS: conexões simultâneas nunca
+    // passam juntas pela última vaga. A fila é só uma estimativa da carga e não precisa disso
+    private boolean reserveConnection() {
+        if (config.maxWaiting > 0 && matchmaker.waiting() >= config.maxWaiting) return false;
+        int open;
+        do {
+            open = connections.get();
+            if (config.maxConnections > 0 && open >= config.maxConnections) return false;
+        } while (!connections.compareAndSet(open, open + 1));
+        return true;
+    }
 
-                // Update total
-                player.updateTotal();
+    void releaseConnection() { // Chamado na queda de toda conexão aceita por connect
+        connections.decrementAndGet();
+    }
+
+    public long openSession(ClientHandler player) { // Chamado pela mesa ao sentar o jogador
+        long token;
+        do {
+            token = tokens.nextLong();
+            if (node != 0) token = token & 0x00FF_FFFF_FFFF_FFFFL | (long) node << 56; // Diz a qualquer nó onde está o assento
+        } while (token == 0 || sessions.putIfAbsent(token, player) != null);
+        return token;
+    }
 
-                // Reset turn flags
-                player.setTurnDone(false);
+    public void closeSession(long token) {
+        sessions.remove(token);
+    }
+
+    // RESUME <token> como primeira mensagem de uma conexão: devolve o assento guardado, se ainda houver
+    public void resume(ClientHandler handshake, String hexToken) {
+        if (!handshake.claimHandshake()) return; // Chegou tarde: a conexão já está na fila como nova
+        ClientHandler seat = null;
+        long token = 0;
+        try {
+            token = HexFormat.fromHexDigitsToLong(hexToken);
+            seat = sessions.get(token);
+        } catch (IllegalArgumentException e) {
+            // Token malformado: tratado como expirado
+        }
+        if (seat == null && cluster != null) { // O assento pode estar em outro nó
+            ClusterNode owner = cluster.node((int) (token >>> 56));
+            if (owner != null) {
+                redirect(handshake, owner);
+                return;
             }
+        }
+        Table table = seat == null ? null : seat.getTable();
+        if (table == null) {
+            sessionExpired(handshake);
+            return;
+        }
+        if (!seat.isDisconnected()) seat.replaceConnection(); // Queda que o servidor ainda não viu: vale o token
+        handshake.forwardTo(seat); // Comandos que chegarem já vão para o assento, atrás do resume na caixa da mesa
+        ClientHandler player = seat;
+        table.execute(() -> table.resume(player, handshake));
+    }
 
-            // Send visible cards information to players
-            for (ClientHandler player : players) {
-                // Send opponent's visible card
-                ClientHandler opponent = getOpponent(player);
-                player.sendMessage("OPPONENT_VISIBLE_CARD " + opponent.getVisibleCard());
+    // HELLO <nome> como primeira mensagem: carrega o perfil numa thread virtual, pois uma falta no cache lê o disco e
+    // esta chamada pode vir do reator NIO, e só então põe o jogador na fila com o rating salvo
+    public void login(ClientHandler handshake, String name) {
+        if (!handshake.claimHandshake()) return; // Chegou tarde: a conexão já está na fila como anônima
+        if (redirectNewPlayer(handshake)) return;
+        if (playerStore == null || !PlayerProfile.isValidName(name)) {
+            matchmaker.enqueue(handshake);
+            return;
+        }
+        Thread.ofVirtual().start(() -> {
+            try {
+                PlayerProfile profile = playerStore.acquire(name, handshake);
+                if (profile == null) {
+                    Log.info("Nome " + name + " já está em uso. Jogador segue sem perfil.");
+                    handshake.send(Message.NAME_IN_USE);
+                } else {
+                    handshake.login(profile);
+                    if (handshake.isDisconnected()) handshake.releaseProfile(); // Caiu durante a leitura
+                    handshake.send(profile);
+                }
+            } catch (IOException e) {
+                Log.error("Perfis: erro ao ler o perfil de " + name + ". Jogador segue sem perfil.", e);
             }
+            handshake.flush();
+            matchmaker.enqueue(handshake);
+        });
+    }
 
-            // Notify the first player that it's their turn
-            if (!players.isEmpty()) {
-                players.get(currentPlayerIndex).sendMessage("YOUR_TURN");
-                System.out.println("Rodada " + currentRound + " iniciada. É a vez do Jogador " + players.get(currentPlayerIndex).getPlayerId());
+    // WATCH [mesa] como primeira mensagem: a conexão só assiste, sem entrar na fila. Sem ID (ou 0), a mesa ativa mais
+    // recente
+    public void watch(ClientHandler handshake, String tableId) {
+        if (!handshake.claimHandshake()) return; // Chegou tarde: a conexão já está na fila como jogador
+        Table table = null;
+        try {
+            int id = tableId.isEmpty() ? 0 : Integer.parseInt(tableId);
+            table = id == 0 ? anyTable() : tables.get(id);
+            if (table == null && cluster != null) { // Mesa de outro nó, ou nenhuma mesa aqui
+                ClusterNode owner = id == 0 ? cluster.busiest() : cluster.tableOwner(id);
+                if (owner != null) {
+                    redirect(handshake, owner);
+                    return;
+                }
             }
+        } catch (NumberFormatException e) {
+            // ID inválido: tratado como mesa inexistente
         }
+        if (table == null) {
+            handshake.send(Message.WATCH_ENDED);
+            handshake.flush();
+            return;
+        }
+        handshake.watch(table);
+        Table watched = table;
+        table.execute(() -> watched.watch(handshake));
     }
 
-    // Get the opponent of a player
-    public ClientHandler getOpponent(ClientHandler player) {
-        for (ClientHandler p : players) {
-            if (p != player) {
-                return p;
-            }
+    private Table anyTable() { // A mais nova ainda em jogo, que em geral tem mais rodadas pela frente
+        Table newest = null;
+        for (Table table : tables.values())
+            if (!table.isClosed() && (newest == null || table.getTableId() > newest.getTableId())) newest = table;
+        return newest;
+    }
+
+    // HELLO sem nome: jogador anônimo. Clientes antigos, que não mandam HELLO, entram pelo admit() e nunca são
+    // redirecionados, pois não conhecem o REDIRECT
+    public void hello(ClientHandler handshake) {
+        if (!handshake.claimHandshake()) return;
+        if (redirectNewPlayer(handshake)) return;
+        matchmaker.enqueue(handshake);
+    }
+
+    private boolean redirectNewPlayer(ClientHandler handshake) { // Manda o jogador novo ao nó menos carregado, se não for este
+        ClusterNode target = cluster == null ? null : cluster.leastLoaded();
+        if (target == null) return false;
+        redirect(handshake, target);
+        return true;
+    }
+
+    // O cliente reconecta no outro nó e repete a primeira mensagem; a conexão fica aberta até ele fechá-la, para o
+    // REDIRECT não se perder num close()
+    private void redirect(ClientHandler handshake, ClusterNode target) {
+        Metrics.redirects.increment();
+        handshake.send(target);
+        handshake.flush();
+    }
+
+    public void sessionExpired(ClientHandler handshake) { // RESUME recusado: segue como jogador novo
+        Metrics.resumesRejected.increment();
+        handshake.forwardTo(null);
+        handshake.send(Message.SESSION_EXPIRED);
+        handshake.flush();
+        matchmaker.enqueue(handshake);
+    }
+
+    // Chamado pelo matchmaking com os jogadores já pareados
+    public void openTable(ClientHandler... players) {
+        Table table = new Table(nextTableId(), this, tableExecutor);
+        tables.put(table.getTableId(), table);
+        for (int i = 0; i < players.length; i++) {
+            players[i].seat(table, i + 1);
         }
-        return null;
-    }
-
-    // Method to calculate the hand value
-    public int calculateHandValue(List<Card> hand) {
-        int total = 0;
-        int aces = 0;
-        for (Card card : hand) {
-            int value = card.getValue();
-            if (value == 1) {
-                aces++;
-                value = 11;
-            }
-            total += value;
+        table.execute(() -> {
+            for (ClientHandler player : players) table.addPlayer(player);
+            table.startGame();
+        });
+        Log.info("Mesa " + table.getTableId() + " iniciada. Mesas ativas: " + tables.size());
+    }
+
+    // No cluster, o ID do nó fica no byte alto: IDs únicos entre os nós. A sequência de 24 bits dá a volta depois de
+    // 16,7 milhões de mesas (cerca de 4,6 h a 1000 mesas/s) sem nunca invadir a faixa de outro nó, pulando o 0 e as
+    // mesas ainda abertas. Um ID só se repete depois de a mesa anterior com ele ter terminado
+    int nextTableId() {
+        while (true) {
+            int sequence = nextTableId.getAndIncrement() & TABLE_SEQUENCE;
+            int id = node << 24 | sequence;
+            if (sequence != 0 && !tables.containsKey(id)) return id;
         }
-        while (total > 21 && aces > 0) { // If bust and has Aces, convert Aces from 11 to 1
-            total -= 10;
-            aces--;
+    }
+
+    public void removeTable(Table table) {
+        if (tables.remove(table.getTableId(), table)) {
+            Log.info("Mesa " + table.getTableId() + " encerrada. Mesas ativas: " + tables.size());
         }
-        return total;
+    }
+
+    public TimerWheel getTimers() {
+        return timers;
+    }
+
+    public Journal getJournal() {
+        return journal;
+    }
+
+    public PlayerStore getPlayerStore() {
+        return playerStore;
+    }
+
+    public Matchmaker getMatchmaker() {
+        return matchmaker;
+    }
+
+    public ServerConfig getConfig() {
+        return config;
     }
 }
@@ -0,0 +1,17 @@
+package server;
+
+// Lote de eventos públicos de uma mesa, já codificado uma vez em cada protocolo. Os arrays são entregues como estão a
+// todas as conexões de espectadores (Connection.offer) e nunca são alterados depois de criados.
+public final class Broadcast {
+    private final byte[] text;
+    private final byte[] binary;
+
+    Broadcast(byte[] text, byte[] binary) {
+        this.text = text;
+        this.binary = binary;
+    }
+
+    byte[] bytes(Protocol protocol) {
+        return protocol instanceof BinaryProtocol ? binary : text;
+    }
+}
@@ -0,0 +1,135 @@
+package server;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+// Base das conexões: as mensagens de um mesmo evento do jogo são acumuladas e saem numa única escrita.
+// O que ainda não foi escrito no socket fica limitado a maxBacklog bytes; um cliente que não lê é desconectado
+// em vez de travar a mesa.
+public abstract class BufferedConnection implements Connection {
+    private final ByteArrayOutputStream pending = new ByteArrayOutputStream(256); // Mensagens do evento atual
+    private final Protocol protocol; // Texto ou binário, conforme a porta usada pelo cliente
+    private final int maxBacklog;
+    private long backlog; // Bytes entregues à camada de rede e ainda não escritos
+    private boolean closed;
+
+    protected BufferedConnection(Protocol protocol, int maxBacklog) {
+        this.protocol = protocol;
+        this.maxBacklog = maxBacklog;
+    }
+
+    @Override
+    public void send(Message message) {
+        send(message, 0);
+    }
+
+    @Override
+    public synchronized void send(Message message, int value) {
+        if (closed) return;
+        protocol.write(pending, message, value);
+        Metrics.messageSent(message);
+    }
+
+    @Override
+    public synchronized void send(Message message, Card card) {
+        if (closed) return;
+        protocol.write(pending, message, card);
+        Metrics.messageSent(message);
+    }
+
+    @Override
+    public synchronized void send(Message message, Outcome outcome) {
+        if (closed) return;
+        protocol.write(pending, message, outcome);
+        Metrics.messageSent(message);
+    }
+
+    @Override
+    public synchronized void send(Message message, long token) {
+        if (closed) return;
+        protocol.write(pending, message, token);
+        Metrics.messageSent(message);
+    }
+
+    @Override
+    public synchronized void send(SeatState state) {
+        if (closed) return;
+        protocol.write(pending, state);
+        Metrics.messageSent(Message.SYNC);
+    }
+
+    @Override
+    public synchronized void send(PlayerProfile profile) {
+        if (closed) return;
+        protocol.write(pending, profile);
+        Metrics.messageSent(Message.PROFILE);
+    }
+
+    @Override
+    public synchronized void send(ClusterNode node) {
+        if (closed) return;
+        protocol.write(pending, node);
+        Metrics.messageSent(Message.REDIRECT);
+    }
+
+    @Override
+    public synchronized void send(TableSnapshot snapshot) {
+        if (closed) return;
+        pending.writeBytes(snapshot.encoded(protocol));
+        Metrics.messageSent(Message.TABLE);
+    }
+
+    @Override
+    public boolean offer(Broadcast broadcast) {
+        byte[] batch = broadcast.bytes(protocol);
+        synchronized (this) {
+            if (closed || backlog + batch.length > maxBacklog) return false;
+            backlog += batch.length;
+            Metrics.outboundBacklog.add(batch.length);
+        }
+        write(batch); // O mesmo array para todos os espectadores: a camada de rede só lê
+        return true;
+    }
+
+    protected void received(ByteBuffer in, ClientHandler player) { // Bytes lidos do socket
+        protocol.decode(in, player);
+    }
+
+    @Override
+    public void flush() {
+        byte[] batch = null;
+        synchronized (this) {
+            if (closed || pending.size() == 0) return;
+            if (backlog + pending.size() <= maxBacklog) {
+                batch = pending.toByteArray();
+                pending.reset();
+                backlog += batch.length;
+                Metrics.outboundBacklog.add(batch.length);
+            }
+        }
+        if (batch != null) {
+            Metrics.flushBytes.record(batch.length);
+            write(batch);
+        } else {
+            Metrics.slowClients.increment();
+            Log.warn("Cliente lento: " + backlog + " bytes pendentes. Desconectando.");
+            close();
+        }
+    }
+
+    protected synchronized void written(int bytes) { // Chamado pela camada de rede após escrever no socket
+        backlog -= bytes;
+        Metrics.outboundBacklog.add(-bytes);
+    }
+
+    protected synchronized boolean markClosed() { // Retorna false se a conexão já estava fechada
+        boolean wasOpen = !closed;
+        closed = true;
+        pending.reset();
+        Metrics.outboundBacklog.add(-backlog); // O que não foi escrito não vai mais ser
+        backlog = 0;
+        return wasOpen;
+    }
+
+    protected abstract void write(byte[] batch); // Entrega um lote à camada de rede sem bloquear
+}
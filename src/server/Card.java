@@ -1,28 +1,57 @@
 package server;
 
-public class Card {
+import java.nio.charset.StandardCharsets;
+
+public class Card { // Imutável: existem só 52 instâncias, compartilhadas por todos os baralhos
+    public static final String[] SUITS = {"Copas", "Ouros", "Espadas", "Paus"};
+    private static final Card[] CARDS = new Card[SUITS.length * 13];
+
+    static {
+        for (int suit = 0; suit < SUITS.length; suit++)
+            for (int number = 1; number <= 13; number++)
+                CARDS[suit * 13 + number - 1] = new Card(number, suit);
+    }
+
     private final int number;
-    private final String suit;
+    private final int suit;
+    private final String name; // Nome já montado, ex.: "Dama de Paus"
+    private final byte[] nameBytes; // Nome em UTF-8, para o protocolo de texto
 
-    public Card(int number, String suit) {
+    private Card(int number, int suit) {
         this.number = number;
         this.suit = suit;
+        this.name = switch (number) {
+            case 1 -> "Ás";
+            case 11 -> "Valete";
+            case 12 -> "Dama";
+            case 13 -> "Rei";
+            default -> String.valueOf(number);
+        } + " de " + SUITS[suit];
+        this.nameBytes = name.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public static Card of(int number, int suit) {
+        return CARDS[suit * 13 + number - 1];
+    }
+
+    public static Card fromCode(int code) { // Inverso de code()
+        return of(code >> 4, code & 0x0F);
     }
 
     public int getValue() {
         return Math.min(number, 10); // Caso seja 1 (Ás), retorna 1, caso seja 11, 12 ou 13, retorna 10
     }
 
+    public int code() { // Um byte: valor nos 4 bits altos, índice do naipe nos baixos
+        return number << 4 | suit;
+    }
+
+    byte[] nameBytes() {
+        return nameBytes;
+    }
+
     @Override
     public String toString() {
-        String name;
-        name = switch (number) {
-            case 1 -> "Ás";
-            case 11 -> "Valete";
-            case 12 -> "Dama";
-            case 13 -> "Rei";
-            default -> String.valueOf(number);
-        };
-        return name + " de " + suit;
+        return name;
     }
 }
@@ -1,270 +1,320 @@
 package server;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.PrintWriter;
-import java.net.Socket;
 import java.util.ArrayList;
-
-public class ClientHandler extends Thread { // Thread para lidar com um cliente
-    private final Socket socket; // Socket para se comunicar com o cliente
-    private PrintWriter out; // Para enviar mensagens ao cliente
-    private BufferedReader in; // Para receber mensagens do cliente
-    private final int playerId; // ID do jogador
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Estado de um jogador conectado; recebe as linhas da camada de conexões.
+// Os comandos viram mensagens para a mesa; o estado do jogador só é alterado pela thread da mesa.
+// A primeira mensagem pode ser HELLO (entra na fila na hora), HELLO <nome> (carrega o perfil e entra na fila) ou
+// RESUME <token> (retoma um assento guardado), ou WATCH [mesa] (só assiste, sem jogar); clientes antigos não mandam
+// nenhuma e entram na fila após handshakeWait. No cluster, as três podem ser respondidas com REDIRECT para outro nó.
+// Enquanto espera no matchmaking o jogador não tem mesa, e os comandos recebidos são ignorados.
+public class ClientHandler {
+    public static final int INITIAL_RATING = 1000;
+    public static final int STARTING_LIVES = 5; // Each player starts with 5 lives
+
+    private final BlackJackServer server;
+    private volatile Connection connection; // Conexão com o cliente; trocada quando a sessão é retomada
+    private final Connection socket; // Conexão que criou este handler: a que a camada de rede lê e avisa da queda
+    private int playerId; // ID do jogador na mesa (assento)
     private Card visibleCard; // Carta visível
     private Card hiddenCard; // Carta oculta
-    private final ArrayList<Card> hand; // Mão do jogador
-    private boolean inGame = true; // Flag para indicar se o jogador está no jogo
+    private final Hand hand = new Hand(); // Mão do jogador, com o total sempre atualizado
+    private final List<Card> cards = new ArrayList<>(12); // Cartas da mão, para o SYNC
     private boolean isTurnDone = false; // Flag para indicar se o jogador terminou a vez
-    private int total = 0; // Total da mão do jogador
-    private int lives = 5; // Each player starts with 5 lives
-    private BlackJackServer server; // Referência ao servidor
-
-    public ClientHandler(Socket socket, int playerId, BlackJackServer server) { // Construtor
-        this.socket = socket;
-        this.playerId = playerId;
+    private int lives = STARTING_LIVES;
+    private boolean out; // Ficou sem vidas e saiu do jogo da mesa
+    private volatile int rating = INITIAL_RATING; // Usado para parear jogadores de nível parecido
+    private volatile Table table; // Mesa em que o jogador está sentado; null enquanto espera
+    private volatile boolean disconnected;
+    private boolean away; // Assento guardado após a queda, do ponto de vista da mesa; só a thread da mesa usa
+    private volatile long lastReceived = System.nanoTime(); // Última mensagem recebida, para detectar silêncio
+    private volatile int disconnects; // Quedas até agora, para o prazo de reconexão saber se é da queda atual
+    private final AtomicBoolean admitted = new AtomicBoolean(); // Já entrou na fila ou pediu RESUME
+    private volatile ClientHandler resumed; // Assento retomado por esta conexão: tudo é repassado a ele
+    private long sessionToken; // Token do assento atual; só a thread da mesa usa
+    private volatile PlayerProfile profile; // Perfil persistente; null para jogadores anônimos
+    private volatile Table watching; // Mesa assistida, se a conexão é de um espectador (WATCH)
+    private volatile boolean rejected; // Recusado pelo controle de admissão (BUSY)
+    private long allowedAt = System.nanoTime(); // Limite de comandos (balde de fichas); só a thread de leitura usa
+    private boolean abusive; // Já derrubado por abuso; só a thread de leitura usa
+
+    public ClientHandler(Connection connection, BlackJackServer server) { // Construtor
+        this.connection = connection;
+        this.socket = connection;
         this.server = server;
-        hand = new ArrayList<>();
-        try {
-            out = new PrintWriter(socket.getOutputStream(), true);
-            in  = new BufferedReader(new InputStreamReader(socket.getInputStream()));
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
     }
 
-    public void sendMessage(String message) { // Método para enviar mensagem ao cliente
-        out.println(message);
-        out.flush();
+    public void admit() { // Entra na fila do matchmaking, uma vez só
+        if (isDisconnected()) return; // Caiu antes do fim do handshakeWait (ex.: health check do balanceador)
+        if (admitted.compareAndSet(false, true)) server.getMatchmaker().enqueue(this);
     }
 
-    public void updateTotal() { // Método para atualizar o total da mão
-        hand.clear();
-        hand.add(visibleCard);
-        hand.add(hiddenCard);
-        total = server.calculateHandValue(hand);
-    }
-
-    @Override
-    public void run() { // Método run da thread
-        try {
-            sendMessage("PLAYER_ID " + playerId);
-
-            String message;
-            while ((message = in.readLine()) != null && inGame) { // Enquanto o jogador estiver no jogo e houver mensagens
-                System.out.println("Recebido do Jogador " + playerId + ": " + message);
-                if (message.equalsIgnoreCase("HIT") && server.gameInProgress) {
-                    if (server.players.get(server.currentPlayerIndex) == this) {
-                        Card card = server.deck.drawCard();
-                        hand.add(card);
-                        total = server.calculateHandValue(hand);
-                        sendMessage("CARD " + card);
-                        sendMessage("TOTAL " + total);
-                        if (total > 21) {
-                            sendMessage("BUST");
-                            isTurnDone = true;
-                            nextTurn();
-                        } else {
-                            sendMessage("YOUR_TURN");
-                            System.out.println("Jogador " + playerId + " pediu HIT. Total agora: " + total);
-                        }
-                    } else {
-                        sendMessage("NOT_YOUR_TURN");
-                    }
-                } else if (message.equalsIgnoreCase("STAND") && server.gameInProgress) {
-                    if (server.players.get(server.currentPlayerIndex) == this) {
-                        isTurnDone = true;
-                        sendMessage("STAND");
-                        System.out.println("Jogador " + playerId + " pediu STAND.");
-                        nextTurn();
-                    } else {
-                        sendMessage("NOT_YOUR_TURN");
-                    }
-                }
-            }
-        } catch (IOException e) {
-            System.out.println("Jogador " + playerId + " desconectado.");
-        } finally {
-            try {
-                socket.close();
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-            synchronized (server.players) { // Sincronizar a lista de jogadores
-                server.players.remove(this); // Remover o jogador da lista
-                System.out.println("Jogador removido. Total de jogadores: " + server.players.size());
-                server.gameInProgress = false;
-            }
-        }
+    void reject() { // Servidor cheio: BUSY, e nada que chegar depois entra na fila; o servidor fecha a conexão em seguida
+        rejected = true;
+        admitted.set(true);
+        send(Message.BUSY);
+        flush();
     }
 
-    // Next turn
-    private void nextTurn() {
-        synchronized (server.players) {
-            // checar se todos os jogadores terminaram
-            if (allPlayersDone())
-                determineWinner();
-            else {
-                server.currentPlayerIndex = (server.currentPlayerIndex + 1) % server.players.size();
-                ClientHandler nextPlayer = server.players.get(server.currentPlayerIndex);
-                if (!nextPlayer.isTurnDone) {
-                    nextPlayer.sendMessage("YOUR_TURN");
-                    System.out.println("É a vez do Jogador " + nextPlayer.playerId);
-                } else {
-                    nextTurn();
-                }
-            }
-        }
+    boolean claimHandshake() { // Reserva a conexão para um RESUME; falha se ela já entrou na fila
+        return admitted.compareAndSet(false, true);
+    }
+
+    void forwardTo(ClientHandler seat) { // null desfaz o repasse (RESUME recusado)
+        resumed = seat;
+    }
+
+    synchronized void attach(Connection connection) { // Chamado pela mesa ao aceitar o RESUME
+        this.connection = connection;
+        this.lastReceived = System.nanoTime();
+        this.disconnected = false;
     }
 
-    // verifica se todos os jogadores terminaram
-    private boolean allPlayersDone() {
-        for (ClientHandler player : server.players)
-            if (!player.isTurnDone)
-                return false;
+    Connection connection() {
+        return connection;
+    }
+
+    public void seat(Table table, int playerId) { // Chamado pelo servidor ao abrir a mesa
+        admitted.set(true);
+        this.playerId = playerId;
+        this.lives = profile == null ? STARTING_LIVES : Math.max(profile.lives(), STARTING_LIVES); // Quem zerou recomeça com 5
+        this.out = false;
+        this.away = false;
+        this.table = table;
+    }
 
-        return true;
+    public void leaveTable() { // Chamado pela mesa ao devolver o jogador à fila
+        table = null;
     }
 
+    // Verifica o silêncio da conexão a cada intervalo de batimento: manda PING e, se nada chegar até idleMillis,
+    // derruba a conexão (ex.: socket meio aberto). Uma única entrada na roda de tempo por conexão.
+    public void watchIdle(TimerWheel timers, long heartbeatMillis, long idleMillis) {
+        long interval = heartbeatMillis > 0 ? heartbeatMillis : idleMillis;
+        Connection watched = connection;
+        if (interval > 0) timers.schedule(interval, () -> checkIdle(watched, timers, interval, heartbeatMillis, idleMillis));
+    }
 
-    private void determineWinner() {
-        System.out.println("Determinando o vencedor da rodada " + server.currentRound);
-        if (server.players.size() < 2) {
-            // If a player has disconnected
-            System.out.println("Um jogador desconectou. Encerrando o jogo.");
+    private void checkIdle(Connection watched, TimerWheel timers, long interval, long heartbeatMillis, long idleMillis) {
+        if (disconnected || watched != connection) return;
+        long silent = (System.nanoTime() - lastReceived) / 1_000_000;
+        if (idleMillis > 0 && silent >= idleMillis) {
+            Metrics.idleDisconnects.increment();
+            Log.info("Jogador " + playerId + " sem resposta há " + silent + " ms. Desconectando.");
+            watched.close();
             return;
         }
+        if (heartbeatMillis > 0 && silent >= heartbeatMillis) {
+            watched.send(Message.PING);
+            watched.flush();
+        }
+        timers.schedule(interval, () -> checkIdle(watched, timers, interval, heartbeatMillis, idleMillis));
+    }
 
-        ClientHandler player1 = server.players.get(0);
-        ClientHandler player2 = server.players.get(1);
+    public void send(Message message) { // Métodos para enviar mensagens ao cliente
+        connection.send(message);
+    }
 
-        int total1 = player1.total;
-        int total2 = player2.total;
+    public void send(Message message, int value) {
+        connection.send(message, value);
+    }
 
-        player1.sendMessage("OPPONENT_TOTAL " + total2);
-        player2.sendMessage("OPPONENT_TOTAL " + total1);
+    public void send(Message message, Card card) {
+        connection.send(message, card);
+    }
 
-        String result1;
-        String result2;
+    public void send(Message message, Outcome outcome) {
+        connection.send(message, outcome);
+    }
 
-        int livesAtStake = server.currentRound; // vidas em jogo
+    public void send(Message message, long token) {
+        connection.send(message, token);
+    }
 
-        if (total1 > 21 && total2 > 21) {
-            result1 = "RESULT Ambos estouraram. Empate.";
-            result2 = "RESULT Ambos estouraram. Empate.";
-        } else if (total1 > 21) {
-            result1 = "RESULT Você estourou. Você perdeu.";
-            result2 = "RESULT Seu oponente estourou. Você ganhou!";
-            updateLives(player1, player2, livesAtStake);
-        } else if (total2 > 21) {
-            result1 = "RESULT Seu oponente estourou. Você ganhou!";
-            result2 = "RESULT Você estourou. Você perdeu.";
-            updateLives(player2, player1, livesAtStake);
-        } else {
-            if (total1 > total2) {
-                result1 = "RESULT Você ganhou!";
-                result2 = "RESULT Você perdeu.";
-                updateLives(player2, player1, livesAtStake);
-            } else if (total1 < total2) {
-                result1 = "RESULT Você perdeu.";
-                result2 = "RESULT Você ganhou!";
-                updateLives(player1, player2, livesAtStake);
-            } else {
-                result1 = "RESULT Empate.";
-                result2 = "RESULT Empate.";
-            }
-        }
+    public void send(SeatState state) {
+        connection.send(state);
+    }
 
-        player1.sendMessage(result1);
-        player2.sendMessage(result2);
+    public void send(PlayerProfile profile) {
+        connection.send(profile);
+    }
 
-        player1.sendMessage("LIVES " + player1.lives);
-        player1.sendMessage("OPPONENT_LIVES " + player2.lives);
+    public void send(ClusterNode node) {
+        connection.send(node);
+    }
 
-        player2.sendMessage("LIVES " + player2.lives);
-        player2.sendMessage("OPPONENT_LIVES " + player1.lives);
+    public void send(TableSnapshot snapshot) {
+        connection.send(snapshot);
+    }
 
+    public void flush() { // Envia num único lote as mensagens acumuladas
+        connection.flush();
+    }
 
-        if (player1.lives <= 0 || player2.lives <= 0) {
-            String finalResult1, finalResult2;
-            if (player1.lives <= 0 && player2.lives <= 0) {
-                finalResult1 = "GAME_OVER Ambos jogadores perderam todas as vidas. Empate final.";
-                finalResult2 = "GAME_OVER Ambos jogadores perderam todas as vidas. Empate final.";
-            } else if (player1.lives <= 0) {
-                finalResult1 = "GAME_OVER Você perdeu todas as suas vidas. Você perdeu o jogo.";
-                finalResult2 = "GAME_OVER Seu oponente perdeu todas as vidas. Você venceu o jogo!";
-            } else {
-                finalResult1 = "GAME_OVER Seu oponente perdeu todas as vidas. Você venceu o jogo!";
-                finalResult2 = "GAME_OVER Você perdeu todas as suas vidas. Você perdeu o jogo.";
-            }
-            player1.sendMessage(finalResult1);
-            player2.sendMessage(finalResult2);
+    public void updateTotal() { // Recomeça a mão com as cartas visível e oculta
+        hand.clear();
+        hand.add(visibleCard);
+        hand.add(hiddenCard);
+        cards.clear();
+        cards.add(visibleCard);
+        cards.add(hiddenCard);
+    }
 
-            player1.sendMessage("GAME_ENDED");
-            player2.sendMessage("GAME_ENDED");
+    public int addCard(Card card) { // Adiciona uma carta à mão e retorna o novo total
+        hand.add(card);
+        cards.add(card);
+        return hand.total();
+    }
 
-            server.gameInProgress = false;
-            System.out.println("Jogo finalizado.");
+    public void onMessage(String message) { // Linha recebida do cliente
+        long now = System.nanoTime();
+        lastReceived = now;
+        ClientHandler seat = resumed;
+        if (seat != null) { // Conexão de um assento retomado
+            seat.onMessage(message);
+            return;
+        }
+        if (!allow(now)) return;
+        if (message.equalsIgnoreCase("PONG")) { // Só o batimento
+            Metrics.command("PONG");
+            return;
+        }
+        if (!admitted.get()) { // Primeira mensagem
+            if (message.startsWith("RESUME ")) {
+                Metrics.command("RESUME");
+                server.resume(this, message.substring(7).trim());
+                return;
+            }
+            if (message.startsWith("HELLO ")) {
+                Metrics.command("HELLO");
+                server.login(this, message.substring(6).trim());
+                return;
+            }
+            if (message.equalsIgnoreCase("WATCH") || message.startsWith("WATCH ")) {
+                Metrics.command("WATCH");
+                server.watch(this, message.substring(5).trim());
+                return;
+            }
+            if (message.equalsIgnoreCase("HELLO")) {
+                Metrics.command("HELLO");
+                server.hello(this);
+                return;
+            }
+            admit();
+        }
+        Table table = this.table;
+        if (table == null) { // Ainda na fila
+            Metrics.command("OTHER");
+            return;
+        }
+        if (Log.isDebugEnabled()) Log.debug("Mesa " + table.getTableId() + ": recebido do Jogador " + playerId + ": " + message);
+        long received = System.nanoTime();
+        if (message.equalsIgnoreCase("HIT")) {
+            Metrics.command("HIT");
+            table.execute(() -> {
+                table.onHit(this);
+                Metrics.actionLatency.record((System.nanoTime() - received) / 1000);
+            });
+        } else if (message.equalsIgnoreCase("STAND")) {
+            Metrics.command("STAND");
+            table.execute(() -> {
+                table.onStand(this);
+                Metrics.actionLatency.record((System.nanoTime() - received) / 1000);
+            });
         } else {
-            server.currentRound++;
-            resetGame();
+            Metrics.command("OTHER");
         }
     }
 
-    private void updateLives(ClientHandler loser, ClientHandler winner, int livesAtStake) {
-        loser.lives -= livesAtStake;
-        winner.lives += livesAtStake;
-        if (loser.lives < 0) {
-            loser.lives = 0;
+    // Balde de fichas por conexão, guardado como o instante em que a próxima ficha fica livre: commandBurst comandos de
+    // uma vez e commandRate por segundo depois disso. O excedente é descartado sem resposta, e até os descartados
+    // gastam ficha; quem passa do dobro da rajada está abusando e é desconectado
+    boolean allow(long now) {
+        ServerConfig config = server.getConfig();
+        if (config.commandRate <= 0) return true;
+        long interval = 1_000_000_000L / config.commandRate;
+        long burst = interval * config.commandBurst;
+        allowedAt = Math.max(allowedAt, now) + interval;
+        long ahead = allowedAt - now;
+        if (ahead <= burst) return true;
+        Metrics.commandsThrottled.increment();
+        if (ahead > 2 * burst) abuse("comandos demais");
+        return false;
+    }
+
+    void abuse(String reason) { // Chamado pela thread de leitura; a queda segue o caminho normal (onDisconnect)
+        if (abusive) return; // O resto do que já foi lido continua chegando até o socket fechar
+        abusive = true;
+        Metrics.abusiveDisconnects.increment();
+        Log.warn("Jogador " + playerId + ": " + reason + ". Desconectando.");
+        socket.close();
+    }
+
+    public void onDisconnect() { // Conexão encerrada
+        if (rejected) return; // Recusado com BUSY: nunca ocupou vaga nem entrou na fila
+        server.releaseConnection();
+        Metrics.playersConnected.decrement();
+        ClientHandler seat = resumed;
+        if (seat != null) { // A queda é do assento retomado
+            disconnected = true;
+            seat.connectionLost(socket);
+            return;
         }
-        System.out.println("Jogador " + loser.playerId + " perdeu " + livesAtStake + " vida(s). Vidas restantes: " + loser.lives);
-        System.out.println("Jogador " + winner.playerId + " ganhou " + livesAtStake + " vida(s). Vidas totais: " + winner.lives);
-    }
-
-    private void resetGame() {
-        System.out.println("Resetando o jogo para a rodada " + server.currentRound);
-        server.deck = new Deck();
-        server.deck.shuffle();
-        server.gameInProgress = true;
-
-        synchronized (server.players) {
-            for (ClientHandler player : server.players) {
-                player.hand.clear();
-                player.isTurnDone = false;
-                player.updateTotal();
-                player.sendMessage("ROUND " + server.currentRound + ". Vale " + server.currentRound + " vida(s).");
-
-                // Distribute new cards
-                // Visible card
-                Card visibleCard = server.deck.drawCard();
-                player.setVisibleCard(visibleCard);
-                player.sendMessage("VISIBLE_CARD " + visibleCard);
-
-                // Hidden card
-                Card hiddenCard = server.deck.drawCard();
-                player.setHiddenCard(hiddenCard);
-                player.sendMessage("HIDDEN_CARD " + hiddenCard);
-
-                // Update total
-                player.updateTotal();
-            }
+        connectionLost(socket); // Se o assento já passou para outra conexão, nada acontece
+    }
 
-            // mandar informações das cartas visíveis para os jogadores
-            for (ClientHandler player : server.players) {
-                ClientHandler opponent = server.getOpponent(player);
-                player.sendMessage("OPPONENT_VISIBLE_CARD " + opponent.getVisibleCard());
-                player.sendMessage("LIVES " + player.lives);
-                player.sendMessage("OPPONENT_LIVES " + opponent.lives);
-            }
+    // RESUME com token válido enquanto a conexão do assento ainda parece viva: em rede móvel o cliente vê o socket cair
+    // e reconecta antes de o servidor notar (o lado dele fica meio aberto até idleTimeout). O token prova o dono do
+    // assento: a conexão antiga segue o caminho de uma queda e é fechada, e a mesa entrega o assento à nova em resume
+    void replaceConnection() {
+        Connection old = connection;
+        connectionLost(old);
+        old.close(); // O onDisconnect que vier dela encontra a queda já tratada
+    }
 
-            // notifica o primeiro jogador que é a vez dele
-            server.currentPlayerIndex = 0;
-            if (!server.players.isEmpty()) {
-                server.players.get(server.currentPlayerIndex).sendMessage("YOUR_TURN");
-                System.out.println("Rodada " + server.currentRound + " iniciada. É a vez do Jogador " + server.players.get(server.currentPlayerIndex).getPlayerId());
-            }
+    // Pode ser chamado pela leitura da conexão e por um RESUME ao mesmo tempo: cada conexão cai uma vez só
+    private synchronized void connectionLost(Connection lost) {
+        if (lost != connection || disconnected) return; // Conexão antiga de um assento já retomado, ou queda já tratada
+        disconnects++;
+        disconnected = true; // Antes de ler a mesa: se ela ainda não foi atribuída, a mesa verá a flag em addPlayer
+        Table watched = watching;
+        if (watched != null) { // Espectador: só sai da lista
+            watched.execute(() -> watched.unwatch(this));
+            return;
         }
+        Table table = this.table;
+        if (table == null) {
+            Log.info("Jogador desconectado enquanto aguardava mesa.");
+            releaseProfile();
+            return; // O matchmaking descarta o bilhete
+        }
+        Log.info("Mesa " + table.getTableId() + ": Jogador " + playerId + " desconectado.");
+        table.disconnect(this);
+    }
+
+    void watch(Table table) { // Chamado pelo servidor antes de entregar o espectador à mesa
+        this.watching = table;
+    }
+
+    void login(PlayerProfile profile) { // Chamado pelo servidor com o perfil carregado, antes de entrar na fila
+        this.profile = profile;
+        this.rating = profile.rating();
+    }
+
+    // Chamado pela thread da mesa: o perfil passa a ter as vidas e o rating atuais, mais o resultado do jogo, se houver.
+    // Só memória; o PlayerStore grava em segundo plano
+    void updateProfile(int won, int lost) {
+        PlayerProfile current = profile;
+        if (current == null) return;
+        profile = current.update(lives, rating, won, lost);
+        server.getPlayerStore().save(profile);
+    }
+
+    void releaseProfile() { // O jogador saiu de vez: o nome fica livre para outra conexão
+        PlayerProfile current = profile;
+        if (current != null) server.getPlayerStore().release(current.name(), this);
     }
 
     // Getters and Setters
@@ -280,11 +330,89 @@ public class ClientHandler extends Thread { // Thread para lidar com um cliente
         this.visibleCard = visibleCard;
     }
 
+    public Card getHiddenCard() {
+        return hiddenCard;
+    }
+
     public void setHiddenCard(Card hiddenCard) {
         this.hiddenCard = hiddenCard;
     }
 
+    public boolean isTurnDone() {
+        return isTurnDone;
+    }
+
     public void setTurnDone(boolean isTurnDone) {
         this.isTurnDone = isTurnDone;
     }
+
+    public int getTotal() {
+        return hand.total();
+    }
+
+    public Hand getHand() {
+        return hand;
+    }
+
+    public boolean isOut() {
+        return out;
+    }
+
+    public void setOut(boolean out) {
+        this.out = out;
+    }
+
+    public Table getTable() {
+        return table;
+    }
+
+    public List<Card> getCards() {
+        return cards;
+    }
+
+    public int getDisconnects() {
+        return disconnects;
+    }
+
+    public long getSessionToken() {
+        return sessionToken;
+    }
+
+    public void setSessionToken(long sessionToken) {
+        this.sessionToken = sessionToken;
+    }
+
+    public boolean isDisconnected() {
+        return disconnected;
+    }
+
+    // Ao contrário de isDisconnected, muda só quando a mesa processa a queda ou o RESUME (eventos do diário):
+    // as decisões da mesa usam esta flag para o replay tomar as mesmas
+    public boolean isAway() {
+        return away;
+    }
+
+    public void setAway(boolean away) {
+        this.away = away;
+    }
+
+    public int getRating() {
+        return rating;
+    }
+
+    public void setRating(int rating) {
+        this.rating = rating;
+    }
+
+    public PlayerProfile getProfile() {
+        return profile;
+    }
+
+    public int getLives() {
+        return lives;
+    }
+
+    public void setLives(int lives) {
+        this.lives = lives;
+    }
 }
@@ -0,0 +1,184 @@
+package server;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+// Diretório do modo cluster, guardado num diretório compartilhado entre os nós (no teste, vários nós numa máquina).
+// A cada reportMillis a thread "cluster" grava o relatório de carga deste nó (node-<id>.properties: endereço, portas,
+// conexões e os IDs das mesas que ele hospeda) e lê os dos outros, montando a visão do cluster: a carga de cada nó e
+// em que nó está cada mesa. Um relatório mais velho que STALE_REPORTS intervalos é de um nó que caiu e é ignorado.
+// As consultas só leem a última visão montada, sem tocar no disco.
+public final class ClusterDirectory {
+    private static final int STALE_REPORTS = 3;
+
+    private final Path dir;
+    private final Path report; // Relatório deste nó
+    private final int node;
+    private final String host;
+    private final int port;
+    private final int binaryPort;
+    private final long reportMillis;
+    private final int redirectSlack; // Conexões a mais que o nó menos carregado precisa ter para receber um redirect
+    private volatile Map<Integer, ClusterNode> nodes = Map.of(); // Outros nós vivos
+    private volatile Map<Integer, Integer> tableNodes = Map.of(); // Mesa -> nó, só das mesas dos outros nós
+    private final Map<Integer, AtomicInteger> redirected = new ConcurrentHashMap<>(); // Clientes mandados a cada nó desde o último relatório
+    private LongSupplier connections; // Carga deste nó; definidos em start()
+    private Supplier<Collection<Integer>> tables;
+
+    public ClusterDirectory(Path dir, int node, String host, int port, int binaryPort, long reportMillis, int redirectSlack)
+            throws IOException {
+        this.dir = Files.createDirectories(dir);
+        this.report = dir.resolve("node-" + node + ".properties");
+        this.node = node;
+        this.host = host;
+        this.port = port;
+        this.binaryPort = binaryPort;
+        this.reportMillis = reportMillis;
+        this.redirectSlack = redirectSlack;
+    }
+
+    public void start(LongSupplier connections, Supplier<Collection<Integer>> tables) {
+        this.connections = connections;
+        this.tables = tables;
+        exchange();
+        Metrics.gauge("cluster_nodes", () -> nodes.size() + 1);
+        Thread.ofPlatform().daemon().name("cluster").start(this::reportLoop);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::leave));
+        Log.info("Cluster: nó " + node + " em " + dir + ", " + nodes.size() + " outro(s) nó(s) ativo(s).");
+    }
+
+    private void reportLoop() {
+        while (true) {
+            try {
+                Thread.sleep(reportMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+            exchange();
+        }
+    }
+
+    private void exchange() { // Publica a carga deste nó e relê a dos outros
+        try {
+            write();
+        } catch (IOException e) {
+            Log.warn("Cluster: não foi possível gravar o relatório em " + report + ": " + e.getMessage());
+        }
+        Map<Integer, ClusterNode> live = new HashMap<>();
+        Map<Integer, Integer> located = new HashMap<>();
+        long oldest = System.currentTimeMillis() - STALE_REPORTS * reportMillis;
+        try (DirectoryStream<Path> reports = Files.newDirectoryStream(dir, "node-*.properties")) {
+            for (Path other : reports) {
+                if (other.equals(report)) continue;
+                try {
+                    if (Files.getLastModifiedTime(other).toMillis() < oldest) continue; // Nó caído
+                    read(other, live, located);
+                } catch (IOException | RuntimeException e) {
+                    // Relatório sumiu ou está sendo trocado: fica para a próxima passada
+                }
+            }
+        } catch (IOException e) {
+            Log.warn("Cluster: não foi possível ler " + dir + ": " + e.getMessage());
+            return;
+        }
+        nodes = live;
+        tableNodes = located;
+        redirected.clear(); // A carga relatada já conta quem foi mandado antes
+    }
+
+    private void write() throws IOException { // Arquivo temporário e troca atômica: quem lê nunca vê um relatório pela metade
+        StringBuilder ids = new StringBuilder();
+        Collection<Integer> hosted = tables.get();
+        for (int id : hosted) {
+            if (!ids.isEmpty()) ids.append(',');
+            ids.append(id);
+        }
+        Properties properties = new Properties();
+        properties.setProperty("node", Integer.toString(node));
+        properties.setProperty("host", host);
+        properties.setProperty("port", Integer.toString(port));
+        properties.setProperty("binaryPort", Integer.toString(binaryPort));
+        properties.setProperty("connections", Long.toString(connections.getAsLong()));
+        properties.setProperty("tables", ids.toString());
+        Path temp = dir.resolve(report.getFileName() + ".tmp");
+        try (Writer out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            properties.store(out, null);
+        }
+        Files.move(temp, report, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void read(Path file, Map<Integer, ClusterNode> live, Map<Integer, Integer> located) throws IOException {
+        Properties properties = new Properties();
+        try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(in);
+        }
+        int id = Integer.parseInt(properties.getProperty("node"));
+        String hosted = properties.getProperty("tables", "");
+        String[] ids = hosted.isEmpty() ? new String[0] : hosted.split(",");
+        for (String table : ids) located.put(Integer.parseInt(table), id);
+        live.put(id, new ClusterNode(id, properties.getProperty("host"), Integer.parseInt(properties.getProperty("port")),
+                Integer.parseInt(properties.getProperty("binaryPort")), Long.parseLong(properties.getProperty("connections")),
+                ids.length));
+    }
+
+    private void leave() { // Gancho de saída: os outros param de mandar clientes para cá sem esperar o relatório vencer
+        try {
+            Files.deleteIfExists(report);
+        } catch (IOException e) {
+            // Saindo de qualquer jeito
+        }
+    }
+
+    public ClusterNode tableOwner(int tableId) { // Nó que hospeda a mesa; null se não é de nenhum outro nó vivo
+        Integer owner = tableNodes.get(tableId);
+        return owner == null ? null : nodes.get(owner);
+    }
+
+    public ClusterNode node(int id) { // Outro nó vivo; null para este nó ou um que caiu
+        return nodes.get(id);
+    }
+
+    // Destino de um jogador novo: o nó menos carregado, se ele tiver pelo menos redirectSlack conexões a menos que
+    // este. Cada redirect conta como uma conexão a mais no destino até o próximo relatório dele, para que uma rajada
+    // de conexões não vá inteira para o mesmo nó. null: o jogador fica aqui
+    public ClusterNode leastLoaded() {
+        long own = connections.getAsLong();
+        ClusterNode best = null;
+        long bestLoad = own - redirectSlack;
+        for (ClusterNode other : nodes.values()) {
+            long load = other.connections() + pending(other.id());
+            if (load < bestLoad) {
+                best = other;
+                bestLoad = load;
+            }
+        }
+        if (best != null) redirected.computeIfAbsent(best.id(), id -> new AtomicInteger()).incrementAndGet();
+        return best;
+    }
+
+    public ClusterNode busiest() { // Nó com mais mesas, para um WATCH sem mesa quando este nó não tem nenhuma
+        ClusterNode best = null;
+        for (ClusterNode other : nodes.values())
+            if (other.tables() > 0 && (best == null || other.tables() > best.tables())) best = other;
+        return best;
+    }
+
+    private int pending(int id) {
+        AtomicInteger sent = redirected.get(id);
+        return sent == null ? 0 : sent.get();
+    }
+}
@@ -0,0 +1,6 @@
+package server;
+
+// Um nó do cluster como aparece no diretório: endereço anunciado aos clientes (REDIRECT), portas e a carga do último
+// relatório (conexões abertas e mesas ativas).
+public record ClusterNode(int id, String host, int port, int binaryPort, long connections, int tables) {
+}
@@ -0,0 +1,29 @@
+package server;
+
+public interface Connection { // Conexão com um cliente, independente da camada de rede e do protocolo
+    void send(Message message); // Acumula uma mensagem para o próximo flush
+
+    void send(Message message, int value);
+
+    void send(Message message, Card card);
+
+    void send(Message message, Outcome outcome);
+
+    void send(Message message, long token);
+
+    void send(SeatState state);
+
+    void send(PlayerProfile profile);
+
+    void send(ClusterNode node); // Mensagem REDIRECT, com a porta do protocolo desta conexão
+
+    void send(TableSnapshot snapshot); // Mensagem TABLE, codificada uma vez e compartilhada entre as conexões
+
+    // Lote de espectador, entregue sem cópia à camada de rede. Nunca fecha a conexão: devolve false se ele não cabe
+    // no backlog (ou a conexão já fechou), e quem chamou decide o que fazer
+    boolean offer(Broadcast broadcast);
+
+    void flush(); // Envia de uma vez tudo o que foi acumulado desde o último flush
+
+    void close(); // Fecha a conexão
+}
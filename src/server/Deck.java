@@ -1,32 +1,81 @@
 package server;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
-public class Deck {
-    private final List<Card> cards;
+public class Deck { // As cartas ficam sempre no mesmo array; comprar só avança o cursor
+    private final Card[] cards;
+    private final RandomGenerator random; // Gerador próprio do baralho, sem disputa entre mesas
+    private int next; // Próxima carta a ser comprada
+    private int roundStart; // Primeira carta da rodada atual: as anteriores já foram descartadas
 
     public Deck() {
-        cards = new ArrayList<>();
-        for (String suit : new String[]{"Copas", "Ouros", "Espadas", "Paus"}) // Cria as cartas
-            for (int i = 1; i <= 13; i++) cards.add(new Card(i, suit));
+        this(1, new SplittableRandom());
+    }
+
+    public Deck(int decks, RandomGenerator random) { // Um ou mais baralhos de 52 cartas
+        this.cards = new Card[52 * decks];
+        this.random = random;
+        int i = 0;
+        for (int d = 0; d < decks; d++)
+            for (int suit = 0; suit < Card.SUITS.length; suit++) // Cria as cartas
+                for (int number = 1; number <= 13; number++) cards[i++] = Card.of(number, suit);
+    }
 
+    public void shuffle() { // Fisher-Yates no próprio array; todas as cartas voltam ao baralho
+        for (int i = cards.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Card card = cards[i];
+            cards[i] = cards[j];
+            cards[j] = card;
+        }
+        next = 0;
+        roundStart = 0;
     }
 
-    public void shuffle() {
-        Collections.shuffle(cards); // Isso vai embaralhar o baralho
+    public void startRound() { // Chamado entre rodadas: o que já saiu está descartado
+        roundStart = next;
+    }
+
+    // O baralho acabou no meio da rodada: só os descartes das rodadas anteriores voltam, embaralhados. As cartas nas
+    // mãos vão para o início do array e continuam fora, então nenhuma sai duas vezes na mesma rodada. Com até oito
+    // mãos (sete assentos e o dealer), uma rodada para antes de 8 * 31 pontos e um baralho tem 340: sempre há descartes
+    public void reshuffleDiscards() {
+        if (roundStart == 0) throw new IllegalStateException("Baralho esgotado numa única rodada");
+        int inPlay = next - roundStart;
+        for (int i = 0; i < inPlay; i++) { // Desliza as cartas em jogo para o início; os descartes vão para o fim
+            Card card = cards[i];
+            cards[i] = cards[roundStart + i];
+            cards[roundStart + i] = card;
+        }
+        for (int i = cards.length - 1; i > inPlay; i--) { // Fisher-Yates só nos descartes
+            int j = inPlay + random.nextInt(i - inPlay + 1);
+            Card card = cards[i];
+            cards[i] = cards[j];
+            cards[j] = card;
+        }
+        next = inPlay;
+        roundStart = 0;
     }
 
     public Card drawCard() {
-        if (cards.isEmpty()) {
-            // Se o baralho estiver vazio, reembaralha
-            System.out.println("Reembaralhando o baralho.");
-            for (String suit : new String[]{"Copas", "Ouros", "Espadas", "Paus"})
-                for (int i = 1; i <= 13; i++)
-                    cards.add(new Card(i, suit));
+        if (next == cards.length) {
+            // Se o baralho estiver vazio, reembaralha. Sem rodadas (benchmarks); o Shoe usa reshuffleDiscards
+            Log.debug("Reembaralhando o baralho.");
             shuffle();
         }
-        return cards.removeFirst();
+        return cards[next++];
+    }
+
+    public int size() {
+        return cards.length;
+    }
+
+    public int dealt() { // Cartas já compradas desde o último embaralhamento
+        return next;
+    }
+
+    public boolean isEmpty() {
+        return next == cards.length;
     }
 }
@@ -0,0 +1,215 @@
+package server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+// Diário em disco, em segmentos de tamanho fixo mapeados em memória (journal-<execução>-<n>.bjj). As mesas só
+// enfileiram, sem lock e sem acordar ninguém; a cada COMMIT_NANOS a thread "journal" junta tudo o que houver na fila
+// num lote, copia o lote para o segmento e faz um único force() por lote (group commit). Nenhuma jogada espera pelo
+// disco: uma queda do sistema perde no máximo o último lote, de cerca de 1 ms.
+// Segmento: cabeçalho (MAGIC, ID da execução, número do segmento) seguido de lotes [tamanho][CRC32C][registros].
+// O arquivo nasce zerado, então tamanho 0 marca o fim do que foi gravado.
+public final class FileJournal implements Journal {
+    private static final int MAGIC = 0x424A4A31; // "BJJ1"
+    private static final int HEADER = 16; // MAGIC, ID da execução e número do segmento
+    private static final int BATCH_HEADER = 8; // Tamanho e CRC do lote
+    private static final int MIN_SEGMENT = 1 << 20;
+    private static final long COMMIT_NANOS = 1_000_000; // Espera da thread do diário quando a fila está vazia
+    private static final long STALL_NANOS = 20_000; // Espera de uma mesa com a fila cheia
+
+    private final Path dir;
+    private final int segmentSize;
+    private final int maxBatch; // Bytes de registros por lote: um lote sempre cabe num segmento vazio
+    private final boolean sync; // force() a cada lote; sem isso, o sistema operacional decide quando gravar
+    private final long runId = System.currentTimeMillis(); // Os IDs de mesa recomeçam a cada execução do servidor
+    private final Queue<byte[]> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger(); // Appends na fila; quem espera vaga não conta
+    private final int queueSize; // Acima disso a mesa espera o disco
+    private final CRC32C crc = new CRC32C();
+    private final Thread writer;
+    private MappedByteBuffer segment; // Segmento atual; só a thread do diário escreve nele
+    private int segmentNumber;
+    private volatile boolean failed; // Erro de disco: o jogo segue sem diário
+    private volatile boolean closing; // Sem interrupt(): interromper a thread no meio de um map() fecha o canal
+    private volatile boolean closed; // A thread do diário saiu: nada mais será gravado
+
+    public FileJournal(Path dir, int segmentSize, boolean sync, int queueSize) throws IOException {
+        if (segmentSize < MIN_SEGMENT) {
+            throw new IllegalArgumentException("Segmento do diário menor que " + MIN_SEGMENT + " bytes: " + segmentSize);
+        }
+        this.dir = Files.createDirectories(dir);
+        this.segmentSize = segmentSize;
+        this.maxBatch = segmentSize - HEADER - BATCH_HEADER;
+        this.sync = sync;
+        this.queueSize = queueSize;
+        Metrics.gauge("journal_pending", pending::get);
+        this.writer = Thread.ofPlatform().daemon().name("journal").start(this::drain);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close));
+    }
+
+    @Override
+    public void append(byte[] records) {
+        if (records.length > maxBatch) { // Nunca caberia num segmento: erro de configuração, não de disco
+            throw new IllegalArgumentException("Registros maiores que um segmento do diário: " + records.length + " bytes");
+        }
+        if (failed || !reserve()) return;
+        queue.add(records);
+    }
+
+    // Vaga na fila, reservada com CAS para a fila nunca passar de queueSize. Cheia: a mesa espera o disco, mas nenhum
+    // evento se perde, a não ser que o diário tenha falhado ou já esteja fechado
+    private boolean reserve() {
+        boolean stalled = false;
+        while (true) {
+            int depth = pending.get();
+            if (depth < queueSize) {
+                if (pending.compareAndSet(depth, depth + 1)) return true;
+            } else if (failed || closed) {
+                return false;
+            } else {
+                if (!stalled) Metrics.journalStalls.increment();
+                stalled = true;
+                LockSupport.parkNanos(STALL_NANOS);
+            }
+        }
+    }
+
+    // Até close(). Só esta thread escreve no segmento: antes de sair, ela mesma grava o que ficou na fila
+    private void drain() {
+        List<byte[]> batch = new ArrayList<>();
+        try {
+            while (true) {
+                boolean last = closing; // Lido antes do poll: o que entrou na fila antes de close() sai nesta volta
+                if (poll(batch) == 0) {
+                    if (last) break;
+                    LockSupport.parkNanos(COMMIT_NANOS);
+                    continue;
+                }
+                write(batch);
+                batch.clear();
+            }
+            if (segment != null && !failed) segment.force();
+        } finally {
+            closed = true; // Nenhuma mesa fica presa esperando vaga numa fila que ninguém mais esvazia
+        }
+    }
+
+    private int poll(List<byte[]> batch) { // Só a thread do diário consome: peek e depois poll é seguro
+        byte[] records;
+        int bytes = 0;
+        while ((records = queue.peek()) != null && bytes + records.length <= maxBatch) {
+            queue.poll();
+            batch.add(records);
+            bytes += records.length;
+        }
+        pending.addAndGet(-batch.size());
+        return batch.size();
+    }
+
+    private void write(List<byte[]> batch) {
+        if (failed) return; // Continua esvaziando a fila, para nenhuma mesa ficar presa em append
+        try {
+            commit(batch);
+        } catch (IOException | RuntimeException e) {
+            failed = true;
+            Log.error("Diário: erro ao gravar em " + dir + ". O jogo segue sem diário.", e);
+        }
+    }
+
+    private void commit(List<byte[]> batch) throws IOException {
+        int size = BATCH_HEADER;
+        for (byte[] records : batch) size += records.length;
+        if (segment == null || segment.remaining() < size) roll();
+        long started = System.nanoTime();
+        int start = segment.position();
+        segment.position(start + BATCH_HEADER);
+        for (byte[] records : batch) segment.put(records);
+        crc.reset();
+        crc.update(segment.slice(start + BATCH_HEADER, size - BATCH_HEADER));
+        segment.putInt(start + 4, (int) crc.getValue());
+        segment.putInt(start, size - BATCH_HEADER); // Por último: até aqui o leitor vê o fim do segmento
+        if (sync) segment.force(start, size);
+        Metrics.journalBytes.add(size);
+        Metrics.journalCommit.record((System.nanoTime() - started) / 1000);
+    }
+
+    private void roll() throws IOException { // Fecha o segmento atual e abre o próximo
+        if (segment != null) segment.force();
+        Path file = dir.resolve(String.format("journal-%013d-%05d.bjj", runId, ++segmentNumber));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize); // O mapeamento sobrevive ao canal
+        }
+        segment.putInt(MAGIC).putLong(runId).putInt(segmentNumber);
+        Log.info("Diário: gravando em " + file + ".");
+    }
+
+    void close() { // Gancho de saída: espera a thread do diário gravar o que ficou na fila
+        closing = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Lê os segmentos do diretório em ordem e entrega cada registro com o ID da execução que o gravou.
+    // Em cada segmento, para no primeiro lote incompleto ou corrompido (queda no meio de uma gravação).
+    public static void read(Path dir, RecordVisitor visitor) throws IOException {
+        List<Path> files;
+        try (Stream<Path> list = Files.list(dir)) {
+            files = list.filter(file -> file.getFileName().toString().endsWith(".bjj")).sorted().toList();
+        }
+        CRC32C crc = new CRC32C();
+        for (Path file : files) {
+            ByteBuffer segment;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            if (segment.remaining() < HEADER || segment.getInt() != MAGIC) {
+                System.err.println("Diário: " + file + " não é um segmento válido.");
+                continue;
+            }
+            long runId = segment.getLong();
+            segment.getInt(); // Número do segmento, já no nome do arquivo
+            while (segment.remaining() >= BATCH_HEADER) {
+                int length = segment.getInt();
+                int checksum = segment.getInt();
+                if (length == 0) break; // Fim do que foi gravado
+                ByteBuffer body = length <= segment.remaining() ? segment.slice(segment.position(), length) : null;
+                if (body != null) {
+                    crc.reset();
+                    crc.update(body.duplicate());
+                }
+                if (body == null || (int) crc.getValue() != checksum) {
+                    System.err.println("Diário: lote incompleto em " + file + ", posição " + (segment.position() - BATCH_HEADER) + ".");
+                    break;
+                }
+                while (body.hasRemaining()) {
+                    int size = body.getShort() & 0xFFFF;
+                    visitor.record(runId, body.slice(body.position(), size));
+                    body.position(body.position() + size);
+                }
+                segment.position(segment.position() + length);
+            }
+        }
+    }
+
+    public interface RecordVisitor {
+        void record(long runId, ByteBuffer record); // O buffer só vale durante a chamada
+    }
+}
@@ -0,0 +1,42 @@
+package server;
+
+// Mão de um jogador com total incremental: cada carta atualiza o estado em O(1), sem percorrer a mão.
+// O total "duro" conta todo Ás como 1; se houver Ás e couber, um deles passa a valer 11 (mão "macia").
+public class Hand {
+    private int hardTotal; // Soma com Ases valendo 1
+    private int aces; // Quantidade de Ases na mão
+    private int size; // Quantidade de cartas
+
+    public void clear() {
+        hardTotal = 0;
+        aces = 0;
+        size = 0;
+    }
+
+    public void add(Card card) {
+        int value = card.getValue();
+        hardTotal += value;
+        if (value == 1) aces++;
+        size++;
+    }
+
+    public int total() { // Melhor total sem estourar, quando possível
+        return isSoft() ? hardTotal + 10 : hardTotal;
+    }
+
+    public boolean isSoft() { // Há um Ás contando 11
+        return aces > 0 && hardTotal + 10 <= 21;
+    }
+
+    public boolean isBust() {
+        return hardTotal > 21;
+    }
+
+    public boolean isBlackjack() { // 21 com as duas primeiras cartas
+        return size == 2 && total() == 21;
+    }
+
+    public int size() {
+        return size;
+    }
+}
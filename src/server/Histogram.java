@@ -0,0 +1,53 @@
+package server;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Histograma seguro entre threads e sem alocação ao registrar, para valores não negativos (ex.: microssegundos).
+// Usado pelas métricas do servidor e pela latência do client.LoadGenerator.
+// Faixas log-lineares: 16 subfaixas por potência de 2, erro relativo de no máximo ~6%.
+public class Histogram {
+    private static final int SUB_BUCKETS = 16;
+    private static final int BUCKETS = 64 * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    public void record(long value) {
+        counts.incrementAndGet(bucket(Math.max(value, 0)));
+    }
+
+    private static int bucket(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value); // >= 4
+        int sub = (int) (value >>> (exponent - 4)) & (SUB_BUCKETS - 1);
+        return (exponent - 3) * SUB_BUCKETS + sub;
+    }
+
+    private static long lowerBound(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+        int exponent = bucket / SUB_BUCKETS + 3;
+        int sub = bucket % SUB_BUCKETS;
+        return (long) (SUB_BUCKETS + sub) << (exponent - 4);
+    }
+
+    public long count() {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) total += counts.get(i);
+        return total;
+    }
+
+    public long percentile(double p) { // 0 se vazio
+        long total = count();
+        if (total == 0) return 0;
+        long target = (long) Math.ceil(total * p / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= target) return lowerBound(i);
+        }
+        return lowerBound(BUCKETS - 1);
+    }
+
+    void reset() {
+        for (int i = 0; i < BUCKETS; i++) counts.set(i, 0);
+    }
+}
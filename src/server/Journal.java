@@ -0,0 +1,30 @@
+package server;
+
+// Diário de eventos das mesas: só acrescenta, nunca altera. Cada registro tem 2 bytes de tamanho e começa pelo tipo e
+// pelo ID da mesa; o resto é codificado pelo TableRecorder e lido pelo Replay. append é chamado pela thread da mesa e
+// não pode bloquear esperando disco: quem grava de fato (FileJournal) faz isso em outra thread, em lotes.
+public interface Journal {
+    // Tipos de registro. Entradas: o que o replay aplica de novo na mesa
+    byte OPEN = 1; // Mesa criada: hora, semente e parâmetros do sapato
+    byte JOIN = 2; // Jogador sentou: assento, rating e vidas (saldo do perfil)
+    byte START = 3; // Jogo começou
+    byte HIT = 4; // HIT aceito: assento e carta
+    byte STAND = 5; // STAND aceito: assento e motivo
+    byte AWAY = 6; // Jogador caiu e o assento ficou guardado
+    byte BACK = 7; // Jogador retomou o assento
+    byte LEAVE = 8; // Jogador saiu da mesa
+    // Saídas: o replay as produz de novo e compara com as gravadas
+    byte DEAL = 9; // Rodada distribuída: cartas do dealer e de cada assento
+    byte DEALER = 10; // Jogo do dealer: total e cartas compradas
+    byte RESULT = 11; // Acerto de um assento: resultado e vidas
+    byte END = 12; // Fim de jogo: assento vencedor, ou 0
+
+    // Motivos de STAND
+    int BY_PLAYER = 0;
+    int BY_TIMEOUT = 1;
+    int BY_ABSENCE = 2;
+
+    Journal DISABLED = records -> { }; // -Dblackjack.journal= (vazio)
+
+    void append(byte[] records); // Um ou mais registros de uma mesa, em ordem; o array passa a pertencer ao diário
+}
@@ -0,0 +1,88 @@
+package server;
+
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+// Log assíncrono com níveis (-Dblackjack.log=debug|info|warn|error). Quem registra só enfileira a linha; uma thread
+// própria escreve no console. Com a fila cheia a linha é descartada e contada, em vez de travar o jogo.
+// Em caminhos quentes, monte a mensagem só se o nível estiver ativo: if (Log.isDebugEnabled()) Log.debug(...).
+public final class Log {
+    public enum Level { DEBUG, INFO, WARN, ERROR }
+
+    private static final Level LEVEL = Level.valueOf(System.getProperty("blackjack.log", "info").toUpperCase());
+    private static final BlockingQueue<String> QUEUE = new ArrayBlockingQueue<>(Integer.getInteger("blackjack.logQueue", 8192));
+    private static volatile boolean muted; // Durante o aquecimento: as mensagens são montadas, mas não escritas
+
+    static {
+        Thread writer = Thread.ofPlatform().daemon().name("log").start(Log::drain);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            writer.interrupt();
+            write(System.out, drainPending());
+        }));
+    }
+
+    private Log() {
+    }
+
+    public static boolean isDebugEnabled() {
+        return LEVEL == Level.DEBUG;
+    }
+
+    public static void debug(String message) {
+        if (LEVEL.compareTo(Level.DEBUG) <= 0) enqueue(message);
+    }
+
+    public static void info(String message) {
+        if (LEVEL.compareTo(Level.INFO) <= 0) enqueue(message);
+    }
+
+    public static void warn(String message) {
+        if (LEVEL.compareTo(Level.WARN) <= 0) enqueue(message);
+    }
+
+    public static void error(String message, Throwable error) {
+        StringWriter trace = new StringWriter();
+        error.printStackTrace(new PrintWriter(trace));
+        enqueue(message + System.lineSeparator() + trace);
+    }
+
+    static void mute(boolean mute) {
+        muted = mute;
+    }
+
+    private static void enqueue(String message) {
+        if (muted) return;
+        if (!QUEUE.offer(message)) Metrics.logDropped.increment();
+    }
+
+    private static void drain() {
+        try {
+            while (true) {
+                String first = QUEUE.take();
+                List<String> batch = drainPending();
+                batch.addFirst(first);
+                write(System.out, batch);
+            }
+        } catch (InterruptedException e) {
+            // Encerramento: o gancho de saída escreve o que restou
+        }
+    }
+
+    private static List<String> drainPending() {
+        List<String> batch = new ArrayList<>();
+        QUEUE.drainTo(batch);
+        return batch;
+    }
+
+    private static void write(PrintStream out, List<String> batch) {
+        StringBuilder text = new StringBuilder();
+        for (String line : batch) text.append(line).append(System.lineSeparator());
+        out.print(text);
+        out.flush();
+    }
+}
@@ -0,0 +1,136 @@
+package server;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Fila de espera por mesa, sem lock global. Os jogadores ficam em faixas de rating; quem chega tenta primeiro tirar os
+// parceiros da própria faixa e, se a mesa fechar, ela sai na hora. Quem sobra é agrupado por uma varredura periódica,
+// que aceita diferenças de rating cada vez maiores conforme a espera cresce. Após maxWait, a mesa abre com quem
+// houver (pelo menos dois), mesmo sem completar os assentos.
+public class Matchmaker {
+    private static final int BAND = 100; // Pontos de rating por faixa
+    private static final int BANDS = 32; // Ratings acima de BAND * BANDS caem na última faixa
+    private static final long SWEEP_MILLIS = 50; // Intervalo da varredura
+    private static final long WIDEN_MILLIS = 500; // A cada intervalo de espera, a tolerância cresce uma faixa
+
+    private final BlackJackServer server;
+    private final int seats; // Jogadores por mesa
+    private final long maxWaitNanos; // Depois disso, pareia com qualquer um
+    private final List<Queue<Ticket>> bands = new ArrayList<>(BANDS);
+    private final LongAdder waiting = new LongAdder(); // Bilhetes nas faixas, inclusive de quem já desconectou
+
+    public Matchmaker(BlackJackServer server, int seats, long maxWaitMillis) {
+        this.server = server;
+        this.seats = seats;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        for (int i = 0; i < BANDS; i++) bands.add(new ConcurrentLinkedQueue<>());
+        Metrics.gauge("matchmaking_waiting", waiting::sum);
+    }
+
+    public long waiting() { // Bilhetes na fila, para o controle de admissão
+        return waiting.sum();
+    }
+
+    public void start() {
+        server.getTimers().schedule(SWEEP_MILLIS, this::sweep);
+    }
+
+    // Pode ser chamado de qualquer thread: conexão nova ou jogador que ficou sem oponente. Quem já caiu (por exemplo
+    // durante o login ou o RESUME, que enfileiram depois de trabalho assíncrono) não entra: seria pareado com um
+    // jogador vivo e abriria uma mesa só para ela terminar em seguida
+    public void enqueue(ClientHandler player) {
+        if (player.isDisconnected()) return;
+        Ticket ticket = new Ticket(player, player.getRating(), System.nanoTime());
+        Queue<Ticket> band = bands.get(band(ticket.rating));
+        Ticket[] group = new Ticket[seats];
+        int found = 0;
+        Ticket partner;
+        while (found < seats - 1 && (partner = pollLive(band)) != null) group[found++] = partner;
+        if (found == seats - 1) {
+            group[found] = ticket;
+            seat(group, seats);
+            return;
+        }
+        for (int i = 0; i < found; i++) requeue(group[i]); // Mesa incompleta: todos esperam
+        requeue(ticket);
+    }
+
+    private static int band(int rating) {
+        return Math.min(Math.max(rating, 0) / BAND, BANDS - 1);
+    }
+
+    private Ticket pollLive(Queue<Ticket> band) { // Próximo jogador ainda conectado; poll entrega cada bilhete uma vez só
+        Ticket ticket;
+        while ((ticket = band.poll()) != null) {
+            waiting.decrement();
+            if (!ticket.player.isDisconnected()) return ticket;
+        }
+        return null;
+    }
+
+    private void seat(Ticket[] group, int count) {
+        long now = System.nanoTime();
+        ClientHandler[] players = new ClientHandler[count];
+        for (int i = 0; i < count; i++) {
+            Metrics.matchWait.record(TimeUnit.NANOSECONDS.toMillis(now - group[i].since));
+            players[i] = group[i].player;
+        }
+        server.openTable(players); // Se alguém cair agora, a mesa devolve os outros à fila
+    }
+
+    // Agrupa quem sobrou nas faixas: ordena por rating e junta vizinhos dentro da tolerância do grupo
+    private void sweep() {
+        try {
+            List<Ticket> pending = new ArrayList<>();
+            for (Queue<Ticket> band : bands) {
+                Ticket ticket;
+                while ((ticket = pollLive(band)) != null) pending.add(ticket);
+            }
+            pending.sort(Comparator.comparingInt(t -> t.rating));
+            long now = System.nanoTime();
+            Ticket[] group = new Ticket[seats];
+            int i = 0;
+            while (i < pending.size()) {
+                Ticket first = pending.get(i);
+                long tolerance = tolerance(first, now);
+                int count = 1;
+                group[0] = first;
+                while (count < seats && i + count < pending.size()) { // Estende enquanto couber na tolerância
+                    Ticket next = pending.get(i + count);
+                    tolerance = Math.max(tolerance, tolerance(next, now));
+                    if (next.rating - first.rating > tolerance) break;
+                    group[count++] = next;
+                }
+                if (count == seats || (count >= 2 && tolerance == Long.MAX_VALUE)) {
+                    seat(group, count);
+                    i += count;
+                } else {
+                    requeue(first);
+                    i++;
+                }
+            }
+        } catch (RuntimeException e) {
+            Log.error("Erro na varredura do matchmaking.", e);
+        }
+        server.getTimers().schedule(SWEEP_MILLIS, this::sweep);
+    }
+
+    private long tolerance(Ticket ticket, long now) {
+        long waited = now - ticket.since;
+        if (waited >= maxWaitNanos) return Long.MAX_VALUE;
+        return BAND * (1 + TimeUnit.NANOSECONDS.toMillis(waited) / WIDEN_MILLIS);
+    }
+
+    private void requeue(Ticket ticket) { // Volta à faixa mantendo o tempo de espera
+        bands.get(band(ticket.rating)).add(ticket);
+        waiting.increment();
+    }
+
+    private record Ticket(ClientHandler player, int rating, long since) { // Lugar de um jogador na fila
+    }
+}
@@ -0,0 +1,44 @@
+package server;
+
+public enum Message { // Mensagens do servidor para o cliente; o código é o opcode do protocolo binário
+    PLAYER_ID(0x01, Payload.NUMBER),
+    VISIBLE_CARD(0x02, Payload.CARD),
+    HIDDEN_CARD(0x03, Payload.CARD),
+    YOUR_TURN(0x05, Payload.NONE),
+    NOT_YOUR_TURN(0x06, Payload.NONE),
+    CARD(0x07, Payload.CARD),
+    TOTAL(0x08, Payload.NUMBER),
+    BUST(0x09, Payload.NONE),
+    STAND(0x0A, Payload.NONE),
+    RESULT(0x0C, Payload.OUTCOME),
+    LIVES(0x0D, Payload.NUMBER),
+    ROUND(0x0F, Payload.NUMBER),
+    GAME_OVER(0x10, Payload.OUTCOME),
+    GAME_ENDED(0x11, Payload.NONE),
+    OPPONENT_LEFT(0x12, Payload.NONE), // O oponente saiu no meio do jogo; o jogador volta à fila
+    DEALER_CARD(0x13, Payload.CARD), // Carta aberta do dealer
+    DEALER_TOTAL(0x14, Payload.NUMBER), // Total final do dealer, no acerto da rodada
+    TABLE(0x15, Payload.SNAPSHOT), // Assento, vidas e carta visível de cada jogador (TableSnapshot)
+    PING(0x16, Payload.NONE), // Batimento: o cliente responde PONG
+    SESSION(0x17, Payload.TOKEN), // Token para retomar o assento após uma queda (RESUME)
+    SYNC(0x18, Payload.SEAT), // Estado completo do assento, após um RESUME aceito (SeatState)
+    SESSION_EXPIRED(0x19, Payload.NONE), // RESUME recusado: o jogador entra na fila como novo
+    PROFILE(0x1A, Payload.PROFILE), // Perfil carregado após HELLO <nome>: vidas, rating, vitórias e derrotas
+    NAME_IN_USE(0x1B, Payload.NONE), // O nome já está em outra conexão: o jogador segue sem perfil
+    WATCHING(0x1C, Payload.NUMBER), // WATCH aceito: ID da mesa; seguem o estado atual e os eventos públicos dela
+    WATCH_ENDED(0x1D, Payload.NONE), // A mesa assistida acabou, ou não existe
+    SETTLE(0x1E, Payload.TOTALS), // Para espectadores: total do dealer e de cada assento no acerto (RoundTotals)
+    REDIRECT(0x1F, Payload.NODE), // Cluster: reconectar em outro nó (host e porta) e repetir a primeira mensagem
+    BUSY(0x20, Payload.NONE); // Servidor lotado: a conexão foi recusada e será fechada; tente mais tarde
+    // 0x04, 0x0B e 0x0E eram as mensagens OPPONENT_* do jogo a dois, substituídas por TABLE
+
+    public enum Payload { NONE, NUMBER, CARD, OUTCOME, SNAPSHOT, TOKEN, SEAT, PROFILE, TOTALS, NODE }
+
+    public final int opcode;
+    public final Payload payload;
+
+    Message(int opcode, Payload payload) {
+        this.opcode = opcode;
+        this.payload = payload;
+    }
+}
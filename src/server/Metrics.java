@@ -0,0 +1,88 @@
+package server;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+// Contadores e histogramas do servidor. Todos sem lock (LongAdder / AtomicLongArray), baratos no caminho quente.
+// Publicados em texto pelo MetricsEndpoint.
+public final class Metrics {
+    public static final LongAdder playersConnected = new LongAdder(); // Conexões de jogadores abertas
+    public static final LongAdder roundsPlayed = new LongAdder(); // Rodadas acertadas
+    public static final LongAdder reshuffles = new LongAdder(); // Embaralhamentos de sapato
+    public static final LongAdder outboundBacklog = new LongAdder(); // Bytes aguardando escrita, somando todas as conexões
+    public static final LongAdder slowClients = new LongAdder(); // Conexões derrubadas por não lerem
+    public static final LongAdder turnTimeouts = new LongAdder(); // STAND automático por tempo esgotado
+    public static final LongAdder idleDisconnects = new LongAdder(); // Conexões derrubadas por silêncio
+    public static final LongAdder resumes = new LongAdder(); // Assentos retomados com RESUME
+    public static final LongAdder resumesRejected = new LongAdder(); // RESUME com token inválido ou expirado
+    public static final LongAdder journalBytes = new LongAdder(); // Bytes gravados no diário
+    public static final LongAdder journalStalls = new LongAdder(); // Vezes em que uma mesa esperou a fila do diário
+    public static final LongAdder profileHits = new LongAdder(); // Perfis encontrados em memória (cache ou ainda sujos)
+    public static final LongAdder profileMisses = new LongAdder(); // Perfis lidos do disco, ou novos
+    public static final LongAdder profileWrites = new LongAdder(); // Perfis gravados pelo write-behind
+    public static final LongAdder spectators = new LongAdder(); // Espectadores assistindo alguma mesa
+    public static final LongAdder spectatorBatches = new LongAdder(); // Lotes de eventos públicos publicados
+    public static final LongAdder spectatorSkips = new LongAdder(); // Lotes pulados por espectadores lentos
+    public static final LongAdder spectatorDrops = new LongAdder(); // Espectadores desconectados por lentidão
+    public static final LongAdder redirects = new LongAdder(); // Clientes mandados a outro nó do cluster
+    public static final LongAdder connectionsRejected = new LongAdder(); // Conexões recusadas com BUSY
+    public static final LongAdder commandsThrottled = new LongAdder(); // Comandos descartados pelo limite por conexão
+    public static final LongAdder abusiveDisconnects = new LongAdder(); // Conexões derrubadas por excesso de comandos ou linha longa
+    public static final LongAdder logDropped = new LongAdder(); // Linhas de log descartadas com a fila cheia
+    public static final Histogram actionLatency = new Histogram(); // µs entre receber um comando e a mesa terminá-lo
+    public static final Histogram matchWait = new Histogram(); // ms na fila do matchmaking até ganhar mesa
+    public static final Histogram flushBytes = new Histogram(); // Tamanho de cada lote escrito
+    public static final Histogram journalCommit = new Histogram(); // µs para gravar um lote do diário, com force()
+    public static final Histogram profileFlushLag = new Histogram(); // ms entre alterar um perfil e gravá-lo
+
+    private static final LongAdder[] messagesSent = new LongAdder[Message.values().length]; // Por tipo de mensagem
+    private static final Map<String, LongAdder> commands = new ConcurrentHashMap<>(); // Por comando recebido
+    private static final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>(); // Valores lidos na hora
+
+    static {
+        for (int i = 0; i < messagesSent.length; i++) messagesSent[i] = new LongAdder();
+    }
+
+    private Metrics() {
+    }
+
+    public static void messageSent(Message message) {
+        messagesSent[message.ordinal()].increment();
+    }
+
+    public static long messagesSent(Message message) {
+        return messagesSent[message.ordinal()].sum();
+    }
+
+    public static void command(String name) { // name deve ser uma constante, nunca o texto vindo do cliente
+        commands.computeIfAbsent(name, n -> new LongAdder()).increment();
+    }
+
+    public static Map<String, LongAdder> commands() {
+        return commands;
+    }
+
+    static void reset() { // Zera contadores e histogramas, depois do aquecimento e antes da primeira conexão
+        for (LongAdder counter : new LongAdder[]{playersConnected, roundsPlayed, reshuffles, outboundBacklog, slowClients,
+                turnTimeouts, idleDisconnects, resumes, resumesRejected, journalBytes, journalStalls, profileHits,
+                profileMisses, profileWrites, spectators, spectatorBatches, spectatorSkips, spectatorDrops, redirects,
+                connectionsRejected, commandsThrottled, abusiveDisconnects, logDropped}) {
+            counter.reset();
+        }
+        for (Histogram histogram : new Histogram[]{actionLatency, matchWait, flushBytes, journalCommit, profileFlushLag}) {
+            histogram.reset();
+        }
+        for (LongAdder sent : messagesSent) sent.reset();
+        commands.values().forEach(LongAdder::reset);
+    }
+
+    public static void gauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    public static Map<String, LongSupplier> gauges() {
+        return gauges;
+    }
+}
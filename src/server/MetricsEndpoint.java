@@ -0,0 +1,93 @@
+package server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+// Publica as métricas em http://127.0.0.1:<blackjack.metricsPort>/metrics, no formato texto do Prometheus. Só contadores
+// e medidores, sem estado entre leituras: a taxa de rodadas é rate(blackjack_rounds_total[1m]) no Prometheus, correta
+// com qualquer número de coletores
+public class MetricsEndpoint {
+    private final HttpServer http;
+
+    public MetricsEndpoint(int port) throws IOException {
+        http = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        http.createContext("/metrics", this::handle);
+    }
+
+    public void start() {
+        http.start();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        byte[] body = render().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private String render() {
+        StringBuilder text = new StringBuilder();
+        line(text, "blackjack_players_connected", Metrics.playersConnected.sum());
+        for (Map.Entry<String, LongSupplier> gauge : new TreeMap<>(Metrics.gauges()).entrySet()) {
+            line(text, "blackjack_" + gauge.getKey(), gauge.getValue().getAsLong());
+        }
+        line(text, "blackjack_rounds_total", Metrics.roundsPlayed.sum());
+        line(text, "blackjack_reshuffles_total", Metrics.reshuffles.sum());
+        line(text, "blackjack_outbound_backlog_bytes", Metrics.outboundBacklog.sum());
+        line(text, "blackjack_slow_clients_total", Metrics.slowClients.sum());
+        line(text, "blackjack_turn_timeouts_total", Metrics.turnTimeouts.sum());
+        line(text, "blackjack_idle_disconnects_total", Metrics.idleDisconnects.sum());
+        line(text, "blackjack_resumes_total", Metrics.resumes.sum());
+        line(text, "blackjack_resumes_rejected_total", Metrics.resumesRejected.sum());
+        line(text, "blackjack_journal_bytes_total", Metrics.journalBytes.sum());
+        line(text, "blackjack_journal_stalls_total", Metrics.journalStalls.sum());
+        line(text, "blackjack_profile_cache_hits_total", Metrics.profileHits.sum());
+        line(text, "blackjack_profile_cache_misses_total", Metrics.profileMisses.sum());
+        line(text, "blackjack_profile_writes_total", Metrics.profileWrites.sum());
+        line(text, "blackjack_spectators", Metrics.spectators.sum());
+        line(text, "blackjack_spectator_batches_total", Metrics.spectatorBatches.sum());
+        line(text, "blackjack_spectator_skips_total", Metrics.spectatorSkips.sum());
+        line(text, "blackjack_spectator_drops_total", Metrics.spectatorDrops.sum());
+        line(text, "blackjack_redirects_total", Metrics.redirects.sum());
+        line(text, "blackjack_connections_rejected_total", Metrics.connectionsRejected.sum());
+        line(text, "blackjack_commands_throttled_total", Metrics.commandsThrottled.sum());
+        line(text, "blackjack_abusive_disconnects_total", Metrics.abusiveDisconnects.sum());
+        line(text, "blackjack_log_dropped_total", Metrics.logDropped.sum());
+        for (Map.Entry<String, LongAdder> command : new TreeMap<>(Metrics.commands()).entrySet()) {
+            line(text, "blackjack_commands_total{command=\"" + command.getKey() + "\"}", command.getValue().sum());
+        }
+        for (Message message : Message.values()) {
+            line(text, "blackjack_messages_sent_total{message=\"" + message + "\"}", Metrics.messagesSent(message));
+        }
+        histogram(text, "blackjack_action_latency_micros", Metrics.actionLatency);
+        histogram(text, "blackjack_match_wait_millis", Metrics.matchWait);
+        histogram(text, "blackjack_flush_bytes", Metrics.flushBytes);
+        histogram(text, "blackjack_journal_commit_micros", Metrics.journalCommit);
+        histogram(text, "blackjack_profile_flush_lag_millis", Metrics.profileFlushLag);
+        return text.toString();
+    }
+
+    private static void line(StringBuilder text, String name, long value) {
+        text.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void histogram(StringBuilder text, String name, Histogram histogram) {
+        line(text, name + "{quantile=\"0.5\"}", histogram.percentile(50));
+        line(text, name + "{quantile=\"0.9\"}", histogram.percentile(90));
+        line(text, name + "{quantile=\"0.99\"}", histogram.percentile(99));
+        line(text, name + "{quantile=\"0.999\"}", histogram.percentile(99.9));
+        line(text, name + "_count", histogram.count());
+    }
+}
@@ -0,0 +1,148 @@
+package server;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
+public class NioTransport implements Transport { // Reator com Selector: uma thread atende todas as conexões
+    private static final int READ_BUFFER_SIZE = 4096;
+
+    private final BlackJackServer server;
+    private Selector selector;
+
+    public NioTransport(BlackJackServer server) {
+        this.server = server;
+    }
+
+    @Override
+    public void serve(ServerConfig config) throws IOException {
+        selector = Selector.open();
+        try (ServerSocketChannel textChannel = ServerSocketChannel.open();
+             ServerSocketChannel binaryChannel = ServerSocketChannel.open()) {
+            listen(textChannel, config.port, false);
+            if (config.binaryPort > 0) listen(binaryChannel, config.binaryPort, true);
+            server.listening();
+
+            while (true) {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) continue;
+                    if (key.isAcceptable()) {
+                        accept((ServerSocketChannel) key.channel(), (Boolean) key.attachment(), config.maxBacklog);
+                        continue;
+                    }
+                    NioConnection connection = (NioConnection) key.attachment();
+                    if (key.isReadable()) connection.read();
+                    if (key.isValid() && key.isWritable()) connection.writePending();
+                }
+            }
+        } finally {
+            selector.close();
+        }
+    }
+
+    private void listen(ServerSocketChannel serverChannel, int port, boolean binary) throws IOException {
+        serverChannel.bind(new InetSocketAddress(port));
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT, binary);
+    }
+
+    private void accept(ServerSocketChannel serverChannel, boolean binary, int maxBacklog) throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            Protocol protocol = binary ? new BinaryProtocol() : new TextProtocol();
+            NioConnection connection = new NioConnection(channel, protocol, maxBacklog);
+            connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+            connection.player = server.connect(connection);
+        }
+    }
+
+    private class NioConnection extends BufferedConnection {
+        private final SocketChannel channel;
+        private final ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE); // Buffer de leitura da conexão
+        private final ArrayDeque<ByteBuffer> writeQueue = new ArrayDeque<>(); // Buffers de escrita pendentes
+        private SelectionKey key;
+        private ClientHandler player;
+
+        NioConnection(SocketChannel channel, Protocol protocol, int maxBacklog) {
+            super(protocol, maxBacklog);
+            this.channel = channel;
+        }
+
+        // Lê o que estiver disponível e entrega cada comando completo ao jogador
+        void read() {
+            int n;
+            try {
+                n = channel.read(readBuffer);
+            } catch (IOException e) {
+                n = -1;
+            }
+            if (n < 0) {
+                close();
+                return;
+            }
+            readBuffer.flip();
+            received(readBuffer, player);
+            readBuffer.clear();
+        }
+
+        @Override
+        protected void write(byte[] batch) {
+            synchronized (writeQueue) {
+                writeQueue.add(ByteBuffer.wrap(batch));
+                if (writeQueue.size() > 1) return; // Já há escrita pendente aguardando OP_WRITE
+            }
+            writePending();
+        }
+
+        // Escreve sem bloquear; o que sobrar fica na fila até o socket aceitar mais dados
+        void writePending() {
+            boolean failed = false;
+            synchronized (writeQueue) {
+                try {
+                    while (!writeQueue.isEmpty()) {
+                        ByteBuffer buffer = writeQueue.peek();
+                        written(channel.write(buffer));
+                        if (buffer.hasRemaining()) break;
+                        writeQueue.poll();
+                    }
+                } catch (IOException e) {
+                    writeQueue.clear();
+                    failed = true;
+                }
+                if (!failed && key.isValid()) {
+                    if (writeQueue.isEmpty()) {
+                        key.interestOps(SelectionKey.OP_READ);
+                    } else {
+                        key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                        selector.wakeup();
+                    }
+                }
+            }
+            if (failed) close(); // Fora do lock: close avisa a mesa
+        }
+
+        @Override
+        public void close() {
+            if (!markClosed()) return;
+            key.cancel();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                Log.error("Erro ao fechar a conexão.", e);
+            }
+            if (player != null) player.onDisconnect();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package server;
+
+public enum Outcome { // Resultados de rodada (RESULT) e de jogo (GAME_OVER), do ponto de vista de quem recebe
+    BUST(0x01, "Você estourou. Você perdeu."),
+    WIN(0x03, "Você ganhou!"),
+    LOSS(0x04, "Você perdeu."),
+    PUSH(0x05, "Empate."),
+    OUT_OF_LIVES(0x07, "Você perdeu todas as suas vidas. Você perdeu o jogo."),
+    DEALER_BUST(0x09, "O dealer estourou. Você ganhou!"),
+    LAST_STANDING(0x0A, "Você é o último jogador com vidas. Você venceu o jogo!"),
+    ALL_OUT(0x0B, "Todos os jogadores perderam todas as vidas. Fim de jogo.");
+    // 0x00, 0x02, 0x06 e 0x08 eram BOTH_BUST, OPPONENT_BUST, BOTH_OUT e OPPONENT_OUT do jogo a dois, sem dealer
+
+    private static final Outcome[] BY_CODE = new Outcome[ALL_OUT.code + 1];
+
+    static {
+        for (Outcome outcome : values()) BY_CODE[outcome.code] = outcome;
+    }
+
+    public final int code; // Byte do resultado no protocolo binário e no diário; não muda com a ordem das constantes
+    public final String text;
+
+    Outcome(int code, String text) {
+        this.code = code;
+        this.text = text;
+    }
+
+    public static Outcome of(int code) { // Resultado lido do diário
+        Outcome outcome = code >= 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+        if (outcome == null) throw new IllegalArgumentException("Código de resultado desconhecido: " + code);
+        return outcome;
+    }
+}
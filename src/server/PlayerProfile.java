@@ -0,0 +1,26 @@
+package server;
+
+import java.nio.charset.StandardCharsets;
+
+// Perfil persistente de um jogador identificado (HELLO <nome>): saldo de vidas, rating e jogos ganhos e perdidos.
+// Imutável: a mesa cria um novo a cada acerto e o entrega ao PlayerStore, que o grava em segundo plano.
+public record PlayerProfile(String name, int lives, int rating, int won, int lost) {
+    public static final int MAX_NAME = 32; // Bytes UTF-8 do nome
+
+    public static PlayerProfile newPlayer(String name) {
+        return new PlayerProfile(name, ClientHandler.STARTING_LIVES, ClientHandler.INITIAL_RATING, 0, 0);
+    }
+
+    public static boolean isValidName(String name) { // Sem espaços nem controle: o nome vai numa linha do protocolo
+        if (name.isEmpty() || name.getBytes(StandardCharsets.UTF_8).length > MAX_NAME) return false;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isWhitespace(c) || Character.isISOControl(c)) return false;
+        }
+        return true;
+    }
+
+    public PlayerProfile update(int lives, int rating, int won, int lost) { // won e lost são somados aos atuais
+        return new PlayerProfile(name, lives, rating, this.won + won, this.lost + lost);
+    }
+}
@@ -0,0 +1,149 @@
+package server;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Perfis dos jogadores identificados: cache LRU em memória na frente do ProfileFile, com gravação em segundo plano
+// (write-behind). A mesa só troca o perfil no cache e o marca como sujo, sem tocar no disco; a cada flushMillis a
+// thread "profiles" grava num único lote tudo o que estiver sujo. Um perfil sujo despejado do cache continua no mapa
+// de sujos até ser gravado, então uma leitura nunca vê uma versão antiga. Se a gravação falhar, os perfis continuam
+// sujos e são gravados na próxima tentativa.
+// Um nome só fica em uma conexão por vez (acquire/release): cada perfil tem um único escritor, a mesa do jogador.
+public final class PlayerStore {
+    private final ProfileFile file;
+    private final Map<String, PlayerProfile> cache; // LRU (LinkedHashMap em ordem de acesso), usado sob lock
+    private final Map<String, Dirty> dirty = new ConcurrentHashMap<>(); // Versões ainda não gravadas
+    private final Map<String, ClientHandler> online = new ConcurrentHashMap<>(); // Conexão dona de cada nome em uso
+    private final long flushMillis;
+    private final Thread writer;
+    private boolean failing; // Última gravação falhou; só a thread "profiles" usa
+
+    private record Dirty(PlayerProfile profile, long since) { // since: nanoTime da alteração mais antiga não gravada
+    }
+
+    public PlayerStore(Path dir, int capacity, long flushMillis) throws IOException {
+        this.file = new ProfileFile(dir);
+        this.flushMillis = flushMillis;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PlayerProfile> eldest) {
+                return size() > capacity;
+            }
+        };
+        Metrics.gauge("profiles_stored", file::size);
+        Metrics.gauge("profiles_cached", this::cached);
+        Metrics.gauge("profiles_dirty", dirty::size);
+        Metrics.gauge("profiles_oldest_dirty_millis", this::oldestDirty);
+        this.writer = Thread.ofPlatform().daemon().name("profiles").start(this::flushLoop);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close));
+    }
+
+    // Reserva o nome para a conexão e devolve o perfil, novo se o nome nunca jogou; null se o nome já está em uso.
+    // Uma falta no cache lê o disco: não chamar da thread de uma mesa nem do reator NIO (ver BlackJackServer.login)
+    public PlayerProfile acquire(String name, ClientHandler owner) throws IOException {
+        if (online.putIfAbsent(name, owner) != null) return null;
+        PlayerProfile profile;
+        synchronized (cache) {
+            profile = cache.get(name);
+        }
+        if (profile != null) {
+            Metrics.profileHits.increment();
+            return profile;
+        }
+        Dirty pending = dirty.get(name); // Despejado do cache antes de ser gravado
+        if (pending != null) {
+            Metrics.profileHits.increment();
+            profile = pending.profile();
+        } else {
+            Metrics.profileMisses.increment();
+            try {
+                profile = file.read(name);
+            } catch (IOException e) {
+                online.remove(name, owner);
+                throw e;
+            }
+            if (profile == null) profile = PlayerProfile.newPlayer(name);
+        }
+        synchronized (cache) {
+            cache.put(name, profile);
+        }
+        return profile;
+    }
+
+    public void release(String name, ClientHandler owner) {
+        online.remove(name, owner);
+    }
+
+    public void save(PlayerProfile profile) { // Chamado pela mesa no acerto: só memória, nunca disco
+        synchronized (cache) {
+            cache.put(profile.name(), profile);
+        }
+        dirty.merge(profile.name(), new Dirty(profile, System.nanoTime()),
+                (older, newer) -> new Dirty(newer.profile(), older.since()));
+    }
+
+    private void flushLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Thread.sleep(flushMillis);
+            } catch (InterruptedException e) {
+                return; // close() grava o que restou
+            }
+            flush();
+        }
+    }
+
+    private void flush() {
+        if (dirty.isEmpty()) return;
+        List<Dirty> batch = new ArrayList<>(dirty.values());
+        List<PlayerProfile> profiles = new ArrayList<>(batch.size());
+        for (Dirty pending : batch) profiles.add(pending.profile());
+        try {
+            file.write(profiles);
+        } catch (IOException e) {
+            if (!failing) Log.error("Perfis: erro ao gravar " + profiles.size() + " perfil(is). Tentando de novo a cada " + flushMillis + " ms.", e);
+            failing = true;
+            return;
+        }
+        if (failing) Log.info("Perfis: gravação normalizada.");
+        failing = false;
+        long now = System.nanoTime();
+        for (Dirty pending : batch) {
+            dirty.remove(pending.profile().name(), pending); // Se mudou durante a gravação, fica para o próximo lote
+            Metrics.profileFlushLag.record((now - pending.since()) / 1_000_000);
+        }
+        Metrics.profileWrites.add(profiles.size());
+    }
+
+    private long cached() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    private long oldestDirty() { // ms desde a alteração mais antiga ainda não gravada
+        long oldest = Long.MAX_VALUE;
+        for (Dirty pending : dirty.values()) oldest = Math.min(oldest, pending.since());
+        return oldest == Long.MAX_VALUE ? 0 : (System.nanoTime() - oldest) / 1_000_000;
+    }
+
+    private void close() { // Gancho de saída: grava o que ficou sujo
+        writer.interrupt();
+        try {
+            writer.join(1000);
+        } catch (InterruptedException e) {
+            return;
+        }
+        flush();
+        try {
+            file.close();
+        } catch (IOException e) {
+            // Saindo de qualquer jeito
+        }
+    }
+}
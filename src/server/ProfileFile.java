@@ -0,0 +1,164 @@
+package server;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32C;
+
+// Armazenamento local dos perfis, no estilo Bitcask: um arquivo só de acréscimos (profiles.dat) em que vale a última
+// versão de cada nome, e um índice nome -> posição em memória, montado na abertura. Ler um perfil é uma única leitura
+// posicional; gravar um lote é uma escrita no fim do arquivo seguida de um force().
+// Registro: [tamanho][CRC32C][tamanho do nome][nome][vidas][rating][vitórias][derrotas].
+// Na abertura, um registro incompleto no fim (queda no meio de uma gravação) é descartado, e o arquivo é compactado
+// quando as versões antigas passam a ocupar a maior parte dele.
+final class ProfileFile {
+    private static final int RECORD_HEADER = 8; // Tamanho e CRC
+    private static final int MAX_RECORD = RECORD_HEADER + 1 + PlayerProfile.MAX_NAME + 16;
+    private static final long COMPACT_SLACK = 1 << 20; // Abaixo disso não vale reescrever o arquivo
+
+    private final Path file;
+    private FileChannel channel;
+    private final Map<String, Long> index = new ConcurrentHashMap<>(); // Posição da última versão de cada nome
+    private long end; // Fim do arquivo; só quem grava (a thread "profiles") altera
+    private final CRC32C crc = new CRC32C(); // Só quem grava usa
+
+    ProfileFile(Path dir) throws IOException {
+        file = Files.createDirectories(dir).resolve("profiles.dat");
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long live = load();
+        if (end > 2 * live + COMPACT_SLACK) compact();
+    }
+
+    int size() {
+        return index.size();
+    }
+
+    private long load() throws IOException { // Monta o índice; devolve os bytes das versões atuais
+        Map<String, Integer> sizes = new HashMap<>();
+        CRC32C check = new CRC32C();
+        // Sem try-with-resources: fechar o stream fecharia o canal
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel.position(0)), 1 << 16));
+        long position = 0;
+        try {
+            while (true) {
+                int length = in.readInt();
+                int checksum = in.readInt();
+                if (length <= 0 || length > MAX_RECORD - RECORD_HEADER) break;
+                byte[] body = in.readNBytes(length);
+                if (body.length < length) break;
+                check.reset();
+                check.update(body);
+                if ((int) check.getValue() != checksum) break;
+                String name = decode(ByteBuffer.wrap(body)).name();
+                index.put(name, position);
+                sizes.put(name, RECORD_HEADER + length);
+                position += RECORD_HEADER + length;
+            }
+        } catch (EOFException e) {
+            // Fim do arquivo
+        }
+        if (position < channel.size()) {
+            Log.warn("Perfis: " + (channel.size() - position) + " byte(s) incompletos no fim de " + file + " descartados.");
+            channel.truncate(position);
+        }
+        end = position;
+        long live = 0;
+        for (int size : sizes.values()) live += size;
+        Log.info("Perfis: " + index.size() + " perfil(is) em " + file + ".");
+        return live;
+    }
+
+    private void compact() throws IOException { // Reescreve só as versões atuais e troca o arquivo
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        Map<String, Long> moved = new HashMap<>();
+        long position = 0;
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(MAX_RECORD);
+            for (Map.Entry<String, Long> entry : index.entrySet()) {
+                buffer.clear();
+                encode(buffer, read(entry.getValue()));
+                moved.put(entry.getKey(), position);
+                position += writeFully(out, buffer.flip(), position);
+            }
+            out.force(true);
+        }
+        channel.close();
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        Log.info("Perfis: " + file + " compactado de " + end + " para " + position + " bytes.");
+        index.putAll(moved);
+        end = position;
+    }
+
+    PlayerProfile read(String name) throws IOException { // null se o nome nunca foi gravado
+        Long position = index.get(name);
+        return position == null ? null : read(position);
+    }
+
+    private PlayerProfile read(long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(MAX_RECORD);
+        int read;
+        do { // O último registro pode ser menor que MAX_RECORD
+            read = channel.read(buffer, position + buffer.position());
+        } while (read > 0 && buffer.hasRemaining());
+        buffer.flip();
+        int length = buffer.getInt();
+        buffer.getInt(); // CRC, conferido na abertura
+        return decode(buffer.limit(RECORD_HEADER + length));
+    }
+
+    void write(List<PlayerProfile> profiles) throws IOException { // Um lote: uma escrita e um force()
+        ByteBuffer buffer = ByteBuffer.allocate(profiles.size() * MAX_RECORD);
+        long[] positions = new long[profiles.size()];
+        for (int i = 0; i < profiles.size(); i++) {
+            positions[i] = end + buffer.position();
+            encode(buffer, profiles.get(i));
+        }
+        long written = writeFully(channel, buffer.flip(), end);
+        channel.force(false);
+        for (int i = 0; i < profiles.size(); i++) index.put(profiles.get(i).name(), positions[i]); // Só depois de gravado
+        end += written;
+    }
+
+    void close() throws IOException {
+        channel.close();
+    }
+
+    private void encode(ByteBuffer buffer, PlayerProfile profile) {
+        int start = buffer.position();
+        byte[] name = profile.name().getBytes(StandardCharsets.UTF_8);
+        buffer.position(start + RECORD_HEADER);
+        buffer.put((byte) name.length).put(name);
+        buffer.putInt(profile.lives()).putInt(profile.rating()).putInt(profile.won()).putInt(profile.lost());
+        int length = buffer.position() - start - RECORD_HEADER;
+        crc.reset();
+        crc.update(buffer.slice(start + RECORD_HEADER, length));
+        buffer.putInt(start, length).putInt(start + 4, (int) crc.getValue());
+    }
+
+    private static PlayerProfile decode(ByteBuffer body) {
+        byte[] name = new byte[body.get() & 0xFF];
+        body.get(name);
+        return new PlayerProfile(new String(name, StandardCharsets.UTF_8), body.getInt(), body.getInt(), body.getInt(), body.getInt());
+    }
+
+    private static long writeFully(FileChannel out, ByteBuffer buffer, long position) throws IOException {
+        long written = 0;
+        while (buffer.hasRemaining()) written += out.write(buffer, position + written);
+        return written;
+    }
+}
@@ -0,0 +1,27 @@
+package server;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+// Formato das mensagens na conexão. Cada conexão tem sua instância, pois a decodificação guarda estado.
+public interface Protocol {
+    void write(ByteArrayOutputStream out, Message message, int value); // Mensagens sem carga ou com número
+
+    void write(ByteArrayOutputStream out, Message message, Card card);
+
+    void write(ByteArrayOutputStream out, Message message, Outcome outcome);
+
+    void write(ByteArrayOutputStream out, Message message, long token);
+
+    void write(ByteArrayOutputStream out, SeatState state); // Mensagem SYNC
+
+    void write(ByteArrayOutputStream out, PlayerProfile profile); // Mensagem PROFILE
+
+    void write(ByteArrayOutputStream out, RoundTotals totals); // Mensagem SETTLE
+
+    void write(ByteArrayOutputStream out, ClusterNode node); // Mensagem REDIRECT, para a porta deste protocolo no nó
+
+    byte[] encode(TableSnapshot snapshot); // Mensagem TABLE completa; chamado uma vez por evento (ver TableSnapshot)
+
+    void decode(ByteBuffer in, ClientHandler player); // Entrega ao jogador cada comando completo recebido
+}
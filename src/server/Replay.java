@@ -0,0 +1,425 @@
+package server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Leitura do diário de eventos (ver FileJournal):
+//   java -cp out server.Replay journal                    reexecuta todas as mesas e compara com o gravado
+//   java -cp out server.Replay journal --day 2026-10-18   só as mesas abertas nesse dia
+//   java -cp out server.Replay journal --table 42         histórico e estado final da mesa 42, em cada execução
+// A reexecução cria cada mesa com a semente gravada e aplica de novo as entradas (JOIN, START, HIT, STAND, AWAY,
+// BACK, LEAVE), numa thread só e sem timers. As saídas que a mesa produz (DEAL, DEALER, RESULT, END e a carta de
+// cada HIT) precisam sair idênticas às gravadas. Mesas com embaralhamento "secure" não têm semente e são puladas.
+public class Replay {
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String[] STAND_REASONS = {"", " (tempo esgotado)", " (ausente)"};
+
+    private final BlackJackServer server;
+    private final LocalDate day; // null: todas as mesas
+    private final Map<Integer, TableReplay> open = new HashMap<>(); // Mesas da execução atual ainda abertas
+    private TableReplay current; // Mesa recebendo entradas agora: recebe as saídas capturadas
+    private long run = -1;
+    private int tables, reproduced, diverged, skipped, rounds;
+
+    private Replay(LocalDate day) {
+        this.day = day;
+        this.server = new BlackJackServer(new ServerConfig(), this::capture, null);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0 || args.length % 2 == 0) {
+            usage();
+            return;
+        }
+        Path dir = Path.of(args[0]);
+        LocalDate day = null;
+        int table = 0;
+        for (int i = 1; i < args.length; i += 2) {
+            switch (args[i]) {
+                case "--day" -> day = LocalDate.parse(args[i + 1]);
+                case "--table" -> table = Integer.parseInt(args[i + 1]);
+                default -> {
+                    usage();
+                    return;
+                }
+            }
+        }
+        if (table > 0) {
+            history(dir, table);
+            return;
+        }
+
+        // Mesa do replay: sem timers (os STAND por tempo esgotado estão no diário) e com o assento sempre guardado
+        // após AWAY (quem sai de fato aparece como LEAVE)
+        System.setProperty("blackjack.shuffle", "fast");
+        System.setProperty("blackjack.turnTimeout", "0");
+        System.setProperty("blackjack.disconnectGrace", String.valueOf(24 * 60 * 60 * 1000));
+        if (System.getProperty("blackjack.log") == null) System.setProperty("blackjack.log", "warn");
+        long started = System.nanoTime();
+        Replay replay = new Replay(day);
+        FileJournal.read(dir, replay::record);
+        replay.finishRun();
+        System.out.printf("Mesas: %d (reproduzidas: %d, divergentes: %d, sem semente: %d). Rodadas: %d. Tempo: %d ms%n",
+                replay.tables, replay.reproduced, replay.diverged, replay.skipped, replay.rounds,
+                (System.nanoTime() - started) / 1_000_000);
+        System.exit(replay.diverged > 0 ? 1 : 0);
+    }
+
+    private static void usage() {
+        System.out.println("Uso: java server.Replay <diretório do diário> [--day aaaa-mm-dd] [--table <id>]");
+    }
+
+    private void record(long runId, ByteBuffer buffer) {
+        if (runId != run) { // Os IDs de mesa recomeçam a cada execução do servidor
+            finishRun();
+            run = runId;
+        }
+        byte[] record = new byte[buffer.remaining()];
+        buffer.get(record);
+        ByteBuffer in = ByteBuffer.wrap(record);
+        byte type = in.get();
+        int tableId = readVarint(in);
+        if (type == Journal.OPEN) {
+            open(tableId, in);
+            return;
+        }
+        TableReplay replay = open.get(tableId);
+        if (replay == null) return; // Fora do filtro ou sem semente
+        current = replay;
+        try {
+            replay.apply(type, in, record);
+        } finally {
+            current = null;
+        }
+        if (type == Journal.DEALER) rounds++;
+        if (!server.tables.containsKey(tableId)) finish(replay, true); // A mesa se encerrou sozinha
+    }
+
+    private void capture(byte[] records) { // Journal das mesas do replay: guarda as saídas da mesa atual
+        ByteBuffer in = ByteBuffer.wrap(records);
+        while (in.hasRemaining()) {
+            byte[] record = new byte[in.getShort() & 0xFFFF];
+            in.get(record);
+            if (current != null && isOutput(record[0])) current.produced.add(record);
+        }
+    }
+
+    private void open(int tableId, ByteBuffer in) {
+        long opened = in.getLong();
+        long seed = in.getLong();
+        boolean reproducible = in.get() != 0;
+        int decks = readVarint(in);
+        double penetration = Double.longBitsToDouble(in.getLong());
+        if (day != null && !LocalDate.ofInstant(Instant.ofEpochMilli(opened), ZoneId.systemDefault()).equals(day)) return;
+        tables++;
+        if (!reproducible) {
+            skipped++;
+            return;
+        }
+        TableReplay replay = new TableReplay(new Table(tableId, server, Runnable::run, seed, decks, penetration), opened);
+        server.tables.put(tableId, replay.table);
+        open.put(tableId, replay);
+    }
+
+    private void finishRun() { // Mesas que a execução deixou abertas (servidor encerrado no meio do jogo)
+        for (TableReplay replay : new ArrayList<>(open.values())) finish(replay, false);
+    }
+
+    private void finish(TableReplay replay, boolean closed) {
+        open.remove(replay.table.getTableId());
+        server.tables.remove(replay.table.getTableId());
+        if (replay.divergence == null && closed && !replay.produced.isEmpty()) {
+            replay.divergence = "o replay produziu a mais: " + describe(replay.produced.peek());
+        }
+        if (replay.divergence == null) {
+            reproduced++;
+            return;
+        }
+        diverged++;
+        System.out.println("Mesa " + replay.table.getTableId() + " (aberta em " + TIME.format(local(replay.opened))
+                + "): " + replay.divergence);
+    }
+
+    private static boolean isOutput(byte type) {
+        return type == Journal.DEAL || type == Journal.HIT || type == Journal.DEALER
+                || type == Journal.RESULT || type == Journal.END;
+    }
+
+    private class TableReplay {
+        private final Table table;
+        private final long opened;
+        private final Map<Integer, ClientHandler> seats = new HashMap<>();
+        private final ArrayDeque<byte[]> produced = new ArrayDeque<>(); // Saídas do replay ainda não comparadas
+        private String divergence; // Primeira diferença encontrada
+
+        TableReplay(Table table, long opened) {
+            this.table = table;
+            this.opened = opened;
+        }
+
+        void apply(byte type, ByteBuffer in, byte[] record) {
+            table.execute(() -> feed(type, in)); // Pela caixa de entrada, como no servidor: o diário recebe tudo no fim
+            if (isOutput(type)) compare(record);
+        }
+
+        private void feed(byte type, ByteBuffer in) {
+            switch (type) {
+                case Journal.JOIN -> {
+                    int seat = readVarint(in);
+                    ClientHandler player = player();
+                    player.seat(table, seat);
+                    player.setRating(readVarint(in));
+                    if (in.hasRemaining()) player.setLives(readVarint(in)); // Diários antigos não têm as vidas
+                    seats.put(seat, player);
+                    table.addPlayer(player);
+                }
+                case Journal.START -> table.startGame();
+                case Journal.HIT -> table.onHit(seats.get(readVarint(in)));
+                case Journal.STAND -> {
+                    ClientHandler player = seats.get(readVarint(in));
+                    if (in.get() != Journal.BY_ABSENCE) table.onStand(player); // Por ausência a própria mesa repete
+                }
+                case Journal.AWAY -> seats.get(readVarint(in)).onDisconnect();
+                case Journal.BACK -> {
+                    ClientHandler player = seats.get(readVarint(in));
+                    ReplayConnection connection = new ReplayConnection();
+                    table.resume(player, new ClientHandler(connection, server));
+                    connection.player = player;
+                }
+                case Journal.LEAVE -> table.removePlayer(seats.get(readVarint(in)));
+                default -> { }
+            }
+        }
+
+        private ClientHandler player() {
+            ReplayConnection connection = new ReplayConnection();
+            ClientHandler player = new ClientHandler(connection, server);
+            connection.player = player;
+            return player;
+        }
+
+        private void compare(byte[] recorded) {
+            byte[] replayed = produced.poll();
+            if (divergence != null || Arrays.equals(recorded, replayed)) return;
+            divergence = "gravado " + describe(recorded) + "; replay " + (replayed == null ? "nada" : describe(replayed));
+        }
+    }
+
+    // Conexão de um jogador do replay. O jogador devolvido à fila fica por aqui: na gravação ele foi para outra mesa,
+    // que tem seus próprios registros
+    private static class ReplayConnection implements Connection {
+        private ClientHandler player;
+
+        @Override
+        public void send(Message message) {
+            if (message == Message.OPPONENT_LEFT) player.onDisconnect();
+        }
+
+        @Override
+        public void send(Message message, int value) {
+        }
+
+        @Override
+        public void send(Message message, Card card) {
+        }
+
+        @Override
+        public void send(Message message, Outcome outcome) {
+        }
+
+        @Override
+        public void send(Message message, long token) {
+        }
+
+        @Override
+        public void send(SeatState state) {
+        }
+
+        @Override
+        public void send(PlayerProfile profile) {
+        }
+
+        @Override
+        public void send(ClusterNode node) {
+        }
+
+        @Override
+        public boolean offer(Broadcast broadcast) {
+            return true;
+        }
+
+        @Override
+        public void send(TableSnapshot snapshot) {
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    // Histórico de uma mesa: os eventos em texto e, ao fim de cada execução, o estado reconstruído
+    private static void history(Path dir, int tableId) throws IOException {
+        Map<Long, List<byte[]>> runs = new LinkedHashMap<>();
+        FileJournal.read(dir, (runId, buffer) -> {
+            ByteBuffer in = buffer.duplicate();
+            in.get();
+            if (readVarint(in) != tableId) return;
+            byte[] record = new byte[buffer.remaining()];
+            buffer.get(record);
+            runs.computeIfAbsent(runId, r -> new ArrayList<>()).add(record);
+        });
+        if (runs.isEmpty()) System.out.println("Mesa " + tableId + " não encontrada no diário.");
+        for (Map.Entry<Long, List<byte[]>> run : runs.entrySet()) {
+            System.out.println("Execução iniciada em " + TIME.format(local(run.getKey())) + ", mesa " + tableId + ":");
+            TableState state = new TableState();
+            for (byte[] record : run.getValue()) {
+                System.out.println("  " + describe(record));
+                state.apply(ByteBuffer.wrap(record));
+            }
+            state.print();
+        }
+    }
+
+    private static class TableState { // Estado da mesa montado só a partir dos eventos
+        private final Map<Integer, SeatView> seats = new LinkedHashMap<>();
+        private int round;
+        private Card dealerUpCard;
+        private int dealerTotal;
+        private String winner = "jogo em andamento";
+
+        void apply(ByteBuffer in) {
+            byte type = in.get();
+            readVarint(in);
+            switch (type) {
+                case Journal.JOIN -> {
+                    SeatView seat = new SeatView();
+                    seats.put(readVarint(in), seat);
+                    readVarint(in); // Rating
+                    if (in.hasRemaining()) seat.lives = readVarint(in);
+                }
+                case Journal.DEAL -> {
+                    round = readVarint(in);
+                    dealerUpCard = card(in);
+                    card(in);
+                    dealerTotal = 0;
+                    while (in.hasRemaining()) {
+                        SeatView seat = seats.get(readVarint(in));
+                        seat.hand.clear();
+                        seat.hand.add(card(in));
+                        seat.hand.add(card(in));
+                    }
+                }
+                case Journal.HIT -> seats.get(readVarint(in)).hand.add(card(in));
+                case Journal.AWAY -> seats.get(readVarint(in)).status = "ausente";
+                case Journal.BACK -> seats.get(readVarint(in)).status = "em jogo";
+                case Journal.LEAVE -> seats.get(readVarint(in)).status = "saiu";
+                case Journal.DEALER -> dealerTotal = readVarint(in);
+                case Journal.RESULT -> {
+                    SeatView seat = seats.get(readVarint(in));
+                    seat.last = Outcome.of(in.get());
+                    seat.lives = readVarint(in);
+                    if (seat.lives == 0) seat.status = "sem vidas";
+                }
+                case Journal.END -> {
+                    int seat = readVarint(in);
+                    winner = seat == 0 ? "sem vencedor" : "vencedor: Jogador " + seat;
+                }
+                default -> { }
+            }
+        }
+
+        void print() {
+            System.out.println("  Estado: rodada " + round + ", dealer " + dealerUpCard
+                    + (dealerTotal > 0 ? " (total " + dealerTotal + ")" : "") + ", " + winner + ".");
+            for (Map.Entry<Integer, SeatView> seat : seats.entrySet()) {
+                SeatView view = seat.getValue();
+                System.out.println("    Jogador " + seat.getKey() + ": " + view.lives + " vida(s), " + view.status
+                        + ", mão " + view.hand + (view.last != null ? ", último resultado " + view.last : ""));
+            }
+        }
+    }
+
+    private static class SeatView {
+        private final List<Card> hand = new ArrayList<>();
+        private int lives = ClientHandler.STARTING_LIVES;
+        private String status = "em jogo";
+        private Outcome last;
+    }
+
+    static String describe(byte[] record) {
+        ByteBuffer in = ByteBuffer.wrap(record);
+        byte type = in.get();
+        readVarint(in); // Mesa
+        return switch (type) {
+            case Journal.OPEN -> "OPEN " + TIME.format(local(in.getLong())) + ", semente " + in.getLong()
+                    + (in.get() != 0 ? "" : " (secure: sem replay)") + ", " + readVarint(in) + " baralho(s), corte em "
+                    + Double.longBitsToDouble(in.getLong());
+            case Journal.JOIN -> "JOIN Jogador " + readVarint(in) + ", rating " + readVarint(in)
+                    + (in.hasRemaining() ? ", " + readVarint(in) + " vida(s)" : "");
+            case Journal.START -> "START";
+            case Journal.DEAL -> {
+                StringBuilder text = new StringBuilder("DEAL rodada " + readVarint(in) + ": dealer " + card(in)
+                        + " (oculta: " + card(in) + ")");
+                while (in.hasRemaining()) {
+                    text.append("; Jogador ").append(readVarint(in)).append(": ").append(card(in)).append(", ").append(card(in));
+                }
+                yield text.toString();
+            }
+            case Journal.HIT -> "HIT Jogador " + readVarint(in) + ": " + card(in);
+            case Journal.STAND -> "STAND Jogador " + readVarint(in) + STAND_REASONS[in.get()];
+            case Journal.AWAY -> "AWAY Jogador " + readVarint(in);
+            case Journal.BACK -> "BACK Jogador " + readVarint(in);
+            case Journal.LEAVE -> "LEAVE Jogador " + readVarint(in);
+            case Journal.DEALER -> {
+                StringBuilder text = new StringBuilder("DEALER total " + readVarint(in));
+                if (in.hasRemaining()) text.append(", comprou");
+                while (in.hasRemaining()) text.append(' ').append(card(in));
+                yield text.toString();
+            }
+            case Journal.RESULT -> "RESULT Jogador " + readVarint(in) + ": " + Outcome.of(in.get()) + ", "
+                    + readVarint(in) + " vida(s)";
+            case Journal.END -> {
+                int winner = readVarint(in);
+                yield "END " + (winner == 0 ? "sem vencedor" : "vencedor: Jogador " + winner);
+            }
+            default -> "tipo desconhecido " + type;
+        };
+    }
+
+    private static LocalDateTime local(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static Card card(ByteBuffer in) {
+        return Card.fromCode(in.get() & 0xFF);
+    }
+
+    private static int readVarint(ByteBuffer in) {
+        int value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = in.get() & 0xFF;
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
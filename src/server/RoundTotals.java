@@ -0,0 +1,5 @@
+package server;
+
+// Acerto de uma rodada para os espectadores (SETTLE): total do dealer e total final de cada assento em jogo.
+public record RoundTotals(int dealerTotal, int[] seats, int[] totals) {
+}
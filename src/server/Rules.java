@@ -0,0 +1,35 @@
+package server;
+
+// Regras do jogo, sem rede nem estado de mesa: quanto vale a rodada, quando o dealer compra, o resultado de cada
+// jogador contra o dealer e as vidas depois do acerto. Usadas pela Table e pela simulação (sim.Simulation), que
+// assim jogam exatamente o mesmo jogo.
+public final class Rules {
+    public static final int DEALER_STANDS = 17; // O dealer para em 17 ou mais
+
+    private Rules() {
+    }
+
+    public static int stake(int round) { // Vidas em jogo: a aposta cresce a cada rodada
+        return round;
+    }
+
+    public static boolean dealerDraws(Hand dealer) {
+        return dealer.total() < DEALER_STANDS;
+    }
+
+    public static Outcome settle(int total, int dealerTotal, boolean dealerBust) { // Um jogador contra o dealer
+        if (total > 21) return Outcome.BUST;
+        if (dealerBust) return Outcome.DEALER_BUST;
+        if (total > dealerTotal) return Outcome.WIN;
+        if (total < dealerTotal) return Outcome.LOSS;
+        return Outcome.PUSH;
+    }
+
+    public static int lives(int lives, Outcome result, int stake) { // Vidas depois do acerto; nunca abaixo de zero
+        return switch (result) {
+            case BUST, LOSS -> Math.max(lives - stake, 0);
+            case PUSH -> lives;
+            default -> lives + stake;
+        };
+    }
+}
@@ -0,0 +1,9 @@
+package server;
+
+import java.util.List;
+
+// Estado de um assento para quem retoma a sessão (SYNC): rodada, vidas, de quem é a vez (0 se ninguém),
+// carta aberta do dealer, cartas da mão (a primeira é a visível, a segunda a oculta) e o estado da mesa.
+// Substitui o replay de todas as mensagens perdidas por uma única mensagem.
+public record SeatState(int round, int lives, int turnSeat, Card dealerCard, List<Card> hand, TableSnapshot table) {
+}
@@ -0,0 +1,113 @@
+package server;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.security.SecureRandom;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+public class ServerConfig { // Configuração do servidor, lida das propriedades de sistema (-Dblackjack.*)
+    public final int port = Integer.getInteger("blackjack.port", 12345); // Protocolo de texto
+    public final int binaryPort = Integer.getInteger("blackjack.binaryPort", 12346); // Protocolo binário; 0 desativa
+    public final String transport = System.getProperty("blackjack.transport", "virtual"); // "virtual" ou "nio"
+    public final int maxBacklog = Integer.getInteger("blackjack.maxBacklog", 64 * 1024); // Bytes pendentes por conexão
+    public final int decks = Integer.getInteger("blackjack.decks", 1); // Baralhos por sapato
+    public final double penetration = Double.parseDouble(System.getProperty("blackjack.penetration", "0.75")); // Carta de corte
+    public final String shuffle = System.getProperty("blackjack.shuffle", "fast"); // "fast", "secure" ou "seeded"
+    public final long seed = Long.getLong("blackjack.seed", 0); // Semente do modo "seeded"
+    public final int seats = Integer.getInteger("blackjack.seats", 2); // Jogadores por mesa, de 2 a Table.MAX_SEATS
+    public final long matchWait = Long.getLong("blackjack.matchWait", 2000); // ms até parear com qualquer rating
+    public final long handshakeWait = Long.getLong("blackjack.handshakeWait", 100); // ms à espera de HELLO/RESUME
+    public final long turnTimeout = Long.getLong("blackjack.turnTimeout", 30_000); // ms para jogar antes do STAND automático; 0 desativa
+    public final long heartbeat = Long.getLong("blackjack.heartbeat", 15_000); // ms de silêncio até o servidor mandar PING
+    public final long idleTimeout = Long.getLong("blackjack.idleTimeout", 60_000); // ms de silêncio até desconectar; 0 desativa
+    public final long disconnectGrace = Long.getLong("blackjack.disconnectGrace", 10_000); // ms que o assento fica guardado após a queda
+    public final String journal = System.getProperty("blackjack.journal", "journal"); // Diretório do diário de eventos; vazio desativa
+    public final int journalSegment = Integer.getInteger("blackjack.journalSegment", 64 << 20); // Bytes por segmento do diário
+    public final boolean journalSync = Boolean.parseBoolean(System.getProperty("blackjack.journalSync", "true")); // force() a cada lote
+    public final String profiles = System.getProperty("blackjack.profiles", "profiles"); // Diretório dos perfis; vazio desativa
+    public final int profileCache = Integer.getInteger("blackjack.profileCache", 10_000); // Perfis mantidos em memória
+    public final long profileFlush = Long.getLong("blackjack.profileFlush", 200); // ms entre gravações dos perfis alterados
+    public final int metricsPort = Integer.getInteger("blackjack.metricsPort", 9090); // HTTP local com /metrics; 0 desativa
+    public final String cluster = System.getProperty("blackjack.cluster", ""); // Diretório compartilhado do cluster; vazio = nó único
+    public final int node = Integer.getInteger("blackjack.node", 0); // ID deste nó no cluster, de 1 a MAX_NODE
+    public final String advertise = System.getProperty("blackjack.advertise", "localhost"); // Host deste nó nos REDIRECT
+    public final long clusterReport = Long.getLong("blackjack.clusterReport", 500); // ms entre relatórios de carga
+    public final int redirectSlack = Integer.getInteger("blackjack.redirectSlack", 20); // Conexões de folga antes de redirecionar
+    public final int maxConnections = Integer.getInteger("blackjack.maxConnections", 10_000); // Acima disso, BUSY; 0 = sem limite
+    public final int maxWaiting = Integer.getInteger("blackjack.maxWaiting", 2_000); // Fila do matchmaking acima disso: BUSY; 0 = sem limite
+    public final int commandRate = Integer.getInteger("blackjack.commandRate", 1_000); // Comandos/s por conexão; 0 = sem limite
+    public final int commandBurst = Integer.getInteger("blackjack.commandBurst", 1_000); // Comandos de uma vez acima do ritmo
+    public final int warmup = Integer.getInteger("blackjack.warmup", 10_000); // Rodadas sintéticas antes de aceitar conexões; 0 desativa
+    public final boolean warmupOnly = Boolean.getBoolean("blackjack.warmupOnly"); // Sai após o aquecimento (treino do arquivo CDS)
+
+    public static final int MAX_NODE = 127; // O ID do nó vai no byte alto dos IDs de mesa e dos tokens de sessão
+
+    public ServerConfig() {
+        if (seats < 2 || seats > Table.MAX_SEATS) {
+            throw new IllegalArgumentException("Assentos por mesa devem ficar entre 2 e " + Table.MAX_SEATS + ": " + seats);
+        }
+        if (commandRate > 0 && commandBurst < 1) {
+            throw new IllegalArgumentException("blackjack.commandBurst deve ser pelo menos 1: " + commandBurst);
+        }
+        if (!cluster.isEmpty() && (node < 1 || node > MAX_NODE)) {
+            throw new IllegalArgumentException("No modo cluster, blackjack.node deve ficar entre 1 e " + MAX_NODE + ": " + node);
+        }
+    }
+
+    public Transport createTransport(BlackJackServer server) {
+        return switch (transport) {
+            case "nio" -> new NioTransport(server);
+            case "virtual" -> new VirtualThreadTransport(server);
+            default -> throw new IllegalArgumentException("Transporte desconhecido: " + transport);
+        };
+    }
+
+    public long createSeed(int tableId) { // Semente do embaralhamento de uma mesa, gravada no diário para o replay
+        return switch (shuffle) {
+            case "fast" -> ThreadLocalRandom.current().nextLong();
+            case "secure" -> 0; // SecureRandom não é reproduzível: o diário guarda as cartas, mas não há replay
+            case "seeded" -> seed * 31 + tableId; // Mesma semente, mesmas cartas
+            default -> throw new IllegalArgumentException("Modo de embaralhamento desconhecido: " + shuffle);
+        };
+    }
+
+    public boolean isReproducible() {
+        return !shuffle.equals("secure");
+    }
+
+    public RandomGenerator createRandom(long tableSeed) { // Gerador de embaralhamento de uma mesa
+        return isReproducible() ? new SplittableRandom(tableSeed) : new SecureRandom(); // secure: para auditoria de justiça
+    }
+
+    public Journal createJournal() {
+        if (journal.isEmpty()) return Journal.DISABLED;
+        try {
+            return new FileJournal(Path.of(journal), journalSegment, journalSync, 65536);
+        } catch (IOException e) {
+            Log.error("Não foi possível abrir o diário em " + journal + ". O jogo segue sem diário.", e);
+            return Journal.DISABLED;
+        }
+    }
+
+    public ClusterDirectory createClusterDirectory() { // null: nó único, sem redirects
+        if (cluster.isEmpty()) return null;
+        try {
+            return new ClusterDirectory(Path.of(cluster), node, advertise, port, binaryPort, clusterReport, redirectSlack);
+        } catch (IOException e) {
+            Log.error("Não foi possível abrir o diretório do cluster em " + cluster + ". O nó segue sozinho.", e);
+            return null;
+        }
+    }
+
+    public PlayerStore createPlayerStore() { // null: HELLO <nome> joga sem perfil
+        if (profiles.isEmpty()) return null;
+        try {
+            return new PlayerStore(Path.of(profiles), profileCache, profileFlush);
+        } catch (IOException e) {
+            Log.error("Não foi possível abrir os perfis em " + profiles + ". Os jogadores seguem sem perfil.", e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package server;
+
+import java.util.random.RandomGenerator;
+
+// Sapato: vários baralhos embaralhados juntos e uma carta de corte. Quando a carta de corte sai, o sapato é
+// reembaralhado antes da próxima rodada, e não no meio dela. Se mesmo assim ele acabar no meio de uma rodada
+// (penetração perto de 1), só os descartes voltam ao sapato; as cartas nas mãos continuam fora.
+public class Shoe {
+    private final Deck deck;
+    private final int cutCard; // Posição da carta de corte
+    private int shuffles; // Quantas vezes o sapato foi embaralhado
+
+    public Shoe(int decks, double penetration, RandomGenerator random) {
+        this.deck = new Deck(decks, random);
+        this.cutCard = (int) (deck.size() * penetration);
+    }
+
+    public void shuffle() {
+        deck.shuffle();
+        shuffles++;
+    }
+
+    public boolean shuffleIfNeeded() { // Chamado entre rodadas
+        if (deck.dealt() < cutCard) {
+            deck.startRound();
+            return false;
+        }
+        shuffle();
+        return true;
+    }
+
+    public Card drawCard() {
+        if (deck.isEmpty()) { // Acabou no meio da rodada
+            deck.reshuffleDiscards();
+            shuffles++;
+        }
+        return deck.drawCard();
+    }
+
+    public int getShuffles() { // Para a métrica de embaralhamentos, contada pela Table
+        return shuffles;
+    }
+}
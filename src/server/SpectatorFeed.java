@@ -0,0 +1,124 @@
+package server;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Supplier;
+
+// Eventos públicos de uma mesa para os espectadores (WATCH). Cada evento é codificado uma única vez por protocolo;
+// no fim de cada execução da caixa de entrada (publish) os buffers viram um Broadcast e os mesmos arrays vão para
+// todos os espectadores, sem cópia nem codificação por conexão. Sem espectadores, nada é codificado.
+// Um espectador que não lê não atrasa a mesa: acima do limite de backlog os lotes dele são pulados, e quando ele
+// volta a ler recebe o estado completo da mesa no lugar dos eventos perdidos. Depois de MAX_SKIPPED lotes pulados
+// seguidos, é desconectado. Usado só pela thread da mesa.
+final class SpectatorFeed {
+    private static final int MAX_SKIPPED = 64; // Lotes pulados seguidos até desconectar o espectador
+
+    private final List<Spectator> spectators = new ArrayList<>();
+    private final Protocol text = new TextProtocol(); // Só para codificar: decode nunca é chamado
+    private final Protocol binary = new BinaryProtocol();
+    private final ByteArrayOutputStream textEvents = new ByteArrayOutputStream(256); // Eventos da execução atual
+    private final ByteArrayOutputStream binaryEvents = new ByteArrayOutputStream(64);
+
+    private static final class Spectator {
+        private final ClientHandler handler;
+        private int skipped; // Lotes seguidos que não couberam; > 0 significa que falta o estado completo
+
+        Spectator(ClientHandler handler) {
+            this.handler = handler;
+        }
+    }
+
+    boolean isEmpty() {
+        return spectators.isEmpty();
+    }
+
+    void subscribe(ClientHandler spectator, Broadcast state) { // Começa pelo estado atual da mesa
+        Spectator subscriber = new Spectator(spectator);
+        spectators.add(subscriber);
+        Metrics.spectators.increment();
+        if (!spectator.connection().offer(state)) subscriber.skipped = 1;
+    }
+
+    void unsubscribe(ClientHandler spectator) {
+        if (spectators.removeIf(subscriber -> subscriber.handler == spectator)) Metrics.spectators.decrement();
+    }
+
+    void add(Message message, int value) {
+        if (spectators.isEmpty()) return;
+        text.write(textEvents, message, value);
+        binary.write(binaryEvents, message, value);
+    }
+
+    void add(Message message, Card card) {
+        if (spectators.isEmpty()) return;
+        text.write(textEvents, message, card);
+        binary.write(binaryEvents, message, card);
+    }
+
+    void add(TableSnapshot snapshot) { // Mesmos bytes que os jogadores recebem
+        if (spectators.isEmpty()) return;
+        textEvents.writeBytes(snapshot.encoded(text));
+        binaryEvents.writeBytes(snapshot.encoded(binary));
+    }
+
+    void add(RoundTotals totals) {
+        if (spectators.isEmpty()) return;
+        text.write(textEvents, totals);
+        binary.write(binaryEvents, totals);
+    }
+
+    Broadcast state(int round, Card dealerUpCard, TableSnapshot snapshot) { // Rodada, carta do dealer e TABLE
+        return new Broadcast(state(text, round, dealerUpCard, snapshot), state(binary, round, dealerUpCard, snapshot));
+    }
+
+    private static byte[] state(Protocol protocol, int round, Card dealerUpCard, TableSnapshot snapshot) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(128);
+        protocol.write(out, Message.ROUND, round);
+        if (dealerUpCard != null) protocol.write(out, Message.DEALER_CARD, dealerUpCard);
+        out.writeBytes(snapshot.encoded(protocol));
+        return out.toByteArray();
+    }
+
+    // Fim de uma execução da caixa de entrada. state só é montado se algum espectador estiver voltando de um atraso
+    void publish(Supplier<Broadcast> state) {
+        if (textEvents.size() == 0) return;
+        Broadcast events = new Broadcast(textEvents.toByteArray(), binaryEvents.toByteArray());
+        textEvents.reset();
+        binaryEvents.reset();
+        Metrics.spectatorBatches.increment();
+        Broadcast resync = null;
+        for (Iterator<Spectator> it = spectators.iterator(); it.hasNext(); ) {
+            Spectator subscriber = it.next();
+            Connection connection = subscriber.handler.connection();
+            if (subscriber.skipped > 0) { // O estado atual já inclui os eventos deste lote
+                if (resync == null) resync = state.get();
+                if (connection.offer(resync)) {
+                    subscriber.skipped = 0;
+                    continue;
+                }
+            } else if (connection.offer(events)) {
+                continue;
+            }
+            Metrics.spectatorSkips.increment();
+            if (++subscriber.skipped >= MAX_SKIPPED) {
+                it.remove();
+                Metrics.spectators.decrement();
+                Metrics.spectatorDrops.increment();
+                Log.info("Espectador lento: " + MAX_SKIPPED + " lotes perdidos seguidos. Desconectando.");
+                connection.close();
+            }
+        }
+    }
+
+    void close(Supplier<Broadcast> state) { // Mesa encerrada: o que faltava publicar e WATCH_ENDED
+        publish(state);
+        for (Spectator subscriber : spectators) {
+            subscriber.handler.send(Message.WATCH_ENDED);
+            subscriber.handler.flush();
+        }
+        Metrics.spectators.add(-spectators.size());
+        spectators.clear();
+    }
+}
@@ -0,0 +1,533 @@
+package server;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Mesa independente: baralho, turno, rodada e jogadores próprios. De 2 a 7 jogadores jogam contra o dealer da mesa;
+// quem fica sem vidas sai do jogo, e o último com vidas vence.
+// Funciona como um ator: os comandos chegam pela caixa de entrada (execute) e são aplicados em ordem, um de cada vez,
+// por uma thread do pool compartilhado. Só essa thread toca no estado da mesa, então não há locks.
+public class Table {
+    public static final int MAX_SEATS = 7; // Jogadores por mesa, no máximo
+    private static final int BATCH = 64; // Comandos por execução antes de ceder a thread a outras mesas
+
+    private final int tableId; // ID da mesa
+    private final BlackJackServer server; // Referência ao servidor
+    private final Executor executor; // Pool compartilhado entre as mesas
+    private final Queue<Runnable> mailbox = new ConcurrentLinkedQueue<>(); // Comandos pendentes
+    private final AtomicBoolean scheduled = new AtomicBoolean(); // Há uma execução agendada no pool
+    private final List<ClientHandler> players = new ArrayList<>(); // Jogadores da mesa
+    private final Shoe shoe; // Reaproveitado a cada rodada
+    private int shufflesCounted; // Embaralhamentos do sapato já somados em Metrics.reshuffles
+    private final TableRecorder recorder; // Eventos da mesa no diário
+    private final SpectatorFeed feed = new SpectatorFeed(); // Espectadores e os eventos públicos para eles
+    private volatile boolean closed; // Jogo acabou ou mesa fechada: não há mais o que assistir
+    private final Hand dealerHand = new Hand(); // Mão do dealer da mesa
+    private Card dealerUpCard; // Carta aberta do dealer
+    private boolean gameInProgress = false;
+    private boolean gameOver = false; // Alguém ficou sem vidas; quem sai depois disso não deixa órfãos
+    private int currentPlayerIndex = 0;
+    private int currentRound = 1; // Starts at round 1
+    private TimerWheel.Timeout turnTimer; // STAND automático de quem está na vez
+    private int turnSerial; // Muda a cada vez; um timer que dispara atrasado para uma vez antiga é ignorado
+    private boolean roundPending; // Rodada adiada porque todos os jogadores em jogo estão desconectados
+
+    public Table(int tableId, BlackJackServer server, Executor executor) {
+        this(tableId, server, executor, server.getConfig().createSeed(tableId),
+                server.getConfig().decks, server.getConfig().penetration);
+    }
+
+    Table(int tableId, BlackJackServer server, Executor executor, long seed, int decks, double penetration) { // Replay: sapato gravado no diário
+        this.tableId = tableId;
+        this.server = server;
+        this.executor = executor;
+        ServerConfig config = server.getConfig();
+        this.shoe = new Shoe(decks, penetration, config.createRandom(seed));
+        this.recorder = new TableRecorder(server.getJournal(), tableId);
+        recorder.open(seed, config.isReproducible(), decks, penetration);
+    }
+
+    public void execute(Runnable command) { // Pode ser chamado de qualquer thread
+        mailbox.add(command);
+        if (scheduled.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            Runnable command;
+            for (int i = 0; i < BATCH && (command = mailbox.poll()) != null; i++) {
+                try {
+                    command.run();
+                } catch (RuntimeException e) {
+                    Log.error("Mesa " + tableId + ": erro ao processar comando.", e);
+                }
+            }
+            flushAll(); // Tudo o que os comandos produziram sai numa escrita por jogador
+            recorder.flush(); // E num único append no diário
+            feed.publish(this::spectatorState); // E num único lote, o mesmo para todos os espectadores
+        } finally {
+            scheduled.set(false);
+            if (!mailbox.isEmpty() && scheduled.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+    }
+
+    public void addPlayer(ClientHandler player) {
+        if (player.isDisconnected()) { // Caiu entre o pareamento e a chegada à mesa
+            player.releaseProfile();
+            return;
+        }
+        players.add(player);
+        recorder.join(player.getPlayerId(), player.getRating(), player.getLives());
+        player.setSessionToken(server.openSession(player));
+        player.send(Message.PLAYER_ID, player.getPlayerId());
+        player.send(Message.SESSION, player.getSessionToken());
+        Log.info("Mesa " + tableId + ": novo jogador conectado. Total de jogadores: " + players.size());
+    }
+
+    // Method to start the game
+    public void startGame() {
+        if (players.size() < 2) { // Alguém saiu antes do início
+            requeueRemaining();
+            return;
+        }
+        recorder.start();
+        currentRound = 1; // Reset the round to 1 when starting a new game
+        shoe.shuffle();
+        dealRound();
+    }
+
+    public void disconnect(ClientHandler player) { // Chamado pela thread da conexão
+        execute(() -> playerLeft(player));
+    }
+
+    // Durante o jogo o assento fica guardado por disconnectGrace: as vezes do jogador viram STAND automático
+    // e, se ele não voltar a tempo, sai da mesa
+    private void playerLeft(ClientHandler player) {
+        long grace = server.getConfig().disconnectGrace;
+        if (!players.contains(player)) return;
+        if (gameOver || player.isOut() || grace <= 0) {
+            removePlayer(player);
+            return;
+        }
+        Log.info("Mesa " + tableId + ": guardando o assento do Jogador " + player.getPlayerId() + " por " + grace + " ms.");
+        int disconnects = player.getDisconnects();
+        server.getTimers().schedule(grace, () -> execute(() -> { // Só se ele não voltou (nem caiu de novo) desde então
+            if (player.isDisconnected() && player.getDisconnects() == disconnects) removePlayer(player);
+        }));
+        player.setAway(true);
+        recorder.away(player.getPlayerId());
+        if (gameInProgress && players.get(currentPlayerIndex) == player) autoStand(player, Journal.BY_ABSENCE);
+    }
+
+    // RESUME aceito pelo servidor: a nova conexão assume o assento e recebe o estado numa única mensagem
+    public void resume(ClientHandler player, ClientHandler handshake) {
+        if (!players.contains(player) || !player.isDisconnected()) { // O prazo acabou, ou outra conexão chegou antes
+            server.sessionExpired(handshake);
+            return;
+        }
+        player.attach(handshake.connection());
+        player.setAway(false);
+        Metrics.resumes.increment();
+        recorder.back(player.getPlayerId());
+        Log.info("Mesa " + tableId + ": Jogador " + player.getPlayerId() + " reconectado.");
+        int turnSeat = gameInProgress ? players.get(currentPlayerIndex).getPlayerId() : 0;
+        player.send(new SeatState(currentRound, player.getLives(), turnSeat, dealerUpCard, player.getCards(), snapshot()));
+        if (roundPending) { // A mesa estava parada esperando alguém voltar
+            roundPending = false;
+            resetGame();
+        }
+    }
+
+    // WATCH aceito pelo servidor: o espectador recebe o estado atual e, daí em diante, os eventos públicos
+    public void watch(ClientHandler spectator) {
+        if (closed) {
+            spectator.send(Message.WATCH_ENDED);
+            spectator.flush();
+            return;
+        }
+        if (spectator.isDisconnected()) return; // Caiu antes de chegar à mesa
+        spectator.send(Message.WATCHING, tableId);
+        spectator.flush();
+        feed.subscribe(spectator, spectatorState());
+        Log.info("Mesa " + tableId + ": novo espectador.");
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public void unwatch(ClientHandler spectator) {
+        feed.unsubscribe(spectator);
+    }
+
+    private Broadcast spectatorState() {
+        return feed.state(currentRound, dealerUpCard, snapshot());
+    }
+
+    private void closeFeed() {
+        closed = true;
+        feed.close(this::spectatorState);
+    }
+
+    public void onHit(ClientHandler player) { // Jogador pediu HIT
+        if (!gameInProgress) return;
+        if (players.get(currentPlayerIndex) == player) {
+            Card card = shoe.drawCard();
+            recorder.hit(player.getPlayerId(), card);
+            int total = player.addCard(card);
+            player.send(Message.CARD, card);
+            player.send(Message.TOTAL, total);
+            if (player.getHand().isBust()) {
+                player.send(Message.BUST);
+                player.setTurnDone(true);
+                nextTurn();
+            } else {
+                promptTurn(player);
+                if (Log.isDebugEnabled()) Log.debug("Mesa " + tableId + ": Jogador " + player.getPlayerId() + " pediu HIT. Total agora: " + total);
+            }
+        } else {
+            player.send(Message.NOT_YOUR_TURN);
+        }
+    }
+
+    public void onStand(ClientHandler player) { // Jogador pediu STAND
+        if (!gameInProgress) return;
+        if (players.get(currentPlayerIndex) == player) {
+            recorder.stand(player.getPlayerId(), Journal.BY_PLAYER);
+            player.setTurnDone(true);
+            player.send(Message.STAND);
+            if (Log.isDebugEnabled()) Log.debug("Mesa " + tableId + ": Jogador " + player.getPlayerId() + " pediu STAND.");
+            nextTurn();
+        } else {
+            player.send(Message.NOT_YOUR_TURN);
+        }
+    }
+
+    private void promptTurn(ClientHandler player) { // YOUR_TURN, com o prazo para jogar
+        turnSerial++;
+        if (turnTimer != null) turnTimer.cancel();
+        turnTimer = null;
+        if (player.isAway()) { // Ausente: não há por que esperar
+            autoStand(player, Journal.BY_ABSENCE);
+            return;
+        }
+        player.send(Message.YOUR_TURN);
+        long timeout = server.getConfig().turnTimeout;
+        if (timeout > 0) {
+            int serial = turnSerial;
+            turnTimer = server.getTimers().schedule(timeout, () -> execute(() -> {
+                if (serial == turnSerial && gameInProgress) {
+                    Metrics.turnTimeouts.increment();
+                    Log.info("Mesa " + tableId + ": tempo esgotado para o Jogador " + player.getPlayerId() + ". STAND automático.");
+                    autoStand(player, Journal.BY_TIMEOUT);
+                }
+            }));
+        }
+    }
+
+    private void autoStand(ClientHandler player, int reason) {
+        turnSerial++;
+        recorder.stand(player.getPlayerId(), reason);
+        player.setTurnDone(true);
+        player.send(Message.STAND);
+        nextTurn();
+    }
+
+    void removePlayer(ClientHandler player) { // Jogador desconectado; também chamado pelo Replay
+        int index = players.indexOf(player);
+        if (index < 0) return; // Já tinha saído ou nem chegou a sentar
+        players.remove(index);
+        recorder.leave(player.getPlayerId());
+        server.closeSession(player.getSessionToken());
+        if (!gameOver && !player.isOut()) player.updateProfile(0, 1); // Abandonar o jogo conta como derrota
+        player.releaseProfile();
+        player.flush();
+        Log.info("Mesa " + tableId + ": jogador removido. Total de jogadores: " + players.size());
+        if (gameOver) {
+            if (players.isEmpty()) server.removeTable(this);
+            return;
+        }
+        if (playersAlive() < 2) { // Sem adversários, não há jogo
+            requeueRemaining();
+            return;
+        }
+        if (!gameInProgress) return;
+        if (index < currentPlayerIndex) {
+            currentPlayerIndex--;
+        } else if (index == currentPlayerIndex) { // Era a vez dele: passa para o próximo
+            currentPlayerIndex--;
+            nextTurn();
+        }
+    }
+
+    private void requeueRemaining() { // Quem ainda tem vidas volta para o matchmaking e a mesa é fechada
+        for (ClientHandler player : players) {
+            server.closeSession(player.getSessionToken());
+            recorder.leave(player.getPlayerId());
+            player.leaveTable();
+            if (player.isDisconnected()) player.releaseProfile();
+            if (player.isOut() || player.isDisconnected()) continue; // Já recebeu GAME_ENDED ou não está mais aí
+            player.send(Message.OPPONENT_LEFT);
+            player.flush();
+            Log.info("Mesa " + tableId + ": Jogador " + player.getPlayerId() + " ficou sem oponente. Voltando à fila.");
+            server.getMatchmaker().enqueue(player);
+        }
+        players.clear();
+        gameInProgress = false;
+        closeFeed();
+        server.removeTable(this);
+    }
+
+    private void flushAll() { // Fim de um evento: cada jogador recebe suas mensagens numa única escrita
+        for (ClientHandler player : players) {
+            player.flush();
+        }
+    }
+
+    // Next turn
+    private void nextTurn() {
+        // checar se todos os jogadores terminaram
+        if (allPlayersDone()) {
+            settleRound();
+            return;
+        }
+        ClientHandler nextPlayer;
+        do { // pula quem já terminou
+            currentPlayerIndex = (currentPlayerIndex + 1) % players.size();
+            nextPlayer = players.get(currentPlayerIndex);
+        } while (nextPlayer.isTurnDone());
+        promptTurn(nextPlayer);
+        if (Log.isDebugEnabled()) Log.debug("Mesa " + tableId + ": é a vez do Jogador " + nextPlayer.getPlayerId());
+    }
+
+    // verifica se todos os jogadores terminaram
+    private boolean allPlayersDone() {
+        for (ClientHandler player : players)
+            if (!player.isTurnDone())
+                return false;
+
+        return true;
+    }
+
+    private int playersPresent() { // Em jogo e não ausentes
+        int present = 0;
+        for (ClientHandler player : players)
+            if (!player.isOut() && !player.isAway())
+                present++;
+        return present;
+    }
+
+    private int playersAlive() {
+        int alive = 0;
+        for (ClientHandler player : players)
+            if (!player.isOut())
+                alive++;
+        return alive;
+    }
+
+    // Acerto da rodada: o dealer joga e cada jogador é comparado com ele, numa única passada
+    private void settleRound() {
+        if (Log.isDebugEnabled()) Log.debug("Mesa " + tableId + ": acertando a rodada " + currentRound);
+        gameInProgress = false;
+        if (turnTimer != null) turnTimer.cancel();
+        turnTimer = null;
+        Metrics.roundsPlayed.increment();
+
+        boolean anyStanding = false; // Se todos estouraram, o dealer nem joga
+        for (ClientHandler player : players)
+            if (!player.isOut() && !player.getHand().isBust())
+                anyStanding = true;
+        if (anyStanding) {
+            while (Rules.dealerDraws(dealerHand)) {
+                Card card = shoe.drawCard();
+                recorder.dealerDraw(card);
+                dealerHand.add(card);
+            }
+        }
+        int dealerTotal = dealerHand.total();
+        boolean dealerBust = dealerHand.isBust();
+        recorder.dealer(dealerTotal);
+
+        int livesAtStake = Rules.stake(currentRound); // vidas em jogo
+        int alive = 0;
+        int[] seats = feed.isEmpty() ? null : new int[players.size()]; // Totais para os espectadores, se houver
+        int[] totals = seats == null ? null : new int[players.size()];
+        int settled = 0;
+        for (ClientHandler player : players) {
+            if (player.isOut()) continue;
+            int total = player.getTotal();
+            if (seats != null) {
+                seats[settled] = player.getPlayerId();
+                totals[settled++] = total;
+            }
+            Outcome result = Rules.settle(total, dealerTotal, dealerBust);
+            player.setLives(Rules.lives(player.getLives(), result, livesAtStake));
+            recorder.result(player.getPlayerId(), result, player.getLives());
+            player.updateProfile(0, 0); // Saldo de vidas, gravado em segundo plano
+            player.send(Message.DEALER_TOTAL, dealerTotal);
+            player.send(Message.RESULT, result);
+            player.send(Message.LIVES, player.getLives());
+            if (player.getLives() > 0) alive++;
+        }
+        if (seats != null) {
+            feed.add(new RoundTotals(dealerTotal, Arrays.copyOf(seats, settled), Arrays.copyOf(totals, settled)));
+            feed.add(snapshot()); // Vidas depois do acerto
+        }
+
+        if (alive <= 1) {
+            finishGame(alive);
+        } else {
+            for (ClientHandler player : players) { // Quem ficou sem vidas nesta rodada está fora
+                if (!player.isOut() && player.getLives() <= 0) {
+                    player.setOut(true);
+                    player.updateProfile(0, 1);
+                    player.send(Message.GAME_OVER, Outcome.OUT_OF_LIVES);
+                    player.send(Message.GAME_ENDED);
+                    Log.info("Mesa " + tableId + ": Jogador " + player.getPlayerId() + " ficou sem vidas.");
+                }
+            }
+            currentRound++;
+            if (playersPresent() == 0) { // Ninguém para jogar: a próxima rodada espera alguém voltar
+                roundPending = true;
+            } else {
+                resetGame();
+            }
+        }
+    }
+
+    private void finishGame(int alive) {
+        ClientHandler winner = null;
+        for (ClientHandler player : players) {
+            if (player.isOut()) continue; // Já recebeu GAME_OVER
+            if (player.getLives() > 0) winner = player;
+            Outcome finalResult = player.getLives() > 0 ? Outcome.LAST_STANDING
+                    : alive == 0 ? Outcome.ALL_OUT : Outcome.OUT_OF_LIVES;
+            player.send(Message.GAME_OVER, finalResult);
+            player.send(Message.GAME_ENDED);
+        }
+        if (winner != null) updateRatings(winner);
+        for (ClientHandler player : players) { // Quem ficou sem vidas antes já teve a derrota contada: só o rating muda
+            player.updateProfile(player == winner ? 1 : 0, player == winner || player.isOut() ? 0 : 1);
+            player.releaseProfile(); // Nada mais muda: o nome já pode entrar por outra conexão
+        }
+        recorder.end(winner == null ? 0 : winner.getPlayerId());
+        for (ClientHandler player : players) server.closeSession(player.getSessionToken()); // Nada mais a retomar
+        gameOver = true;
+        closeFeed();
+        countShuffles();
+        Log.info("Mesa " + tableId + ": jogo finalizado.");
+    }
+
+    // A métrica é contada aqui, e não no Shoe, que também serve à simulação: soma os embaralhamentos desde a última
+    // contagem (o do início do jogo, os da carta de corte e os do sapato que acabou no meio de uma rodada)
+    private void countShuffles() {
+        int shuffles = shoe.getShuffles();
+        Metrics.reshuffles.add(shuffles - shufflesCounted);
+        shufflesCounted = shuffles;
+    }
+
+    private void updateRatings(ClientHandler winner) { // Elo, K = 32: o vencedor contra cada um dos outros
+        int winnerRating = winner.getRating();
+        int gained = 0;
+        for (ClientHandler player : players) {
+            if (player == winner) continue;
+            double expected = 1 / (1 + Math.pow(10, (player.getRating() - winnerRating) / 400.0));
+            int delta = (int) Math.round(32 * (1 - expected));
+            player.setRating(player.getRating() - delta);
+            gained += delta;
+        }
+        winner.setRating(winnerRating + gained);
+    }
+
+    private void resetGame() {
+        if (Log.isDebugEnabled()) Log.debug("Mesa " + tableId + ": resetando o jogo para a rodada " + currentRound);
+        if (shoe.shuffleIfNeeded() && Log.isDebugEnabled()) {
+            Log.debug("Mesa " + tableId + ": carta de corte atingida. Sapato reembaralhado.");
+        }
+        countShuffles();
+        for (ClientHandler player : players) {
+            if (!player.isOut()) player.send(Message.ROUND, currentRound);
+        }
+        dealRound();
+    }
+
+    private void dealRound() { // Distribui as cartas e manda o estado da mesa numa única mensagem para todos
+        gameInProgress = true;
+
+        // Dealer: uma carta aberta e uma fechada
+        dealerHand.clear();
+        dealerUpCard = shoe.drawCard();
+        Card holeCard = shoe.drawCard();
+        dealerHand.add(dealerUpCard);
+        dealerHand.add(holeCard);
+
+        for (ClientHandler player : players) {
+            if (player.isOut()) { // Fora do jogo: só aparece no estado da mesa
+                player.setTurnDone(true);
+                continue;
+            }
+            // Visible card
+            Card visibleCard = shoe.drawCard();
+            player.setVisibleCard(visibleCard);
+            player.send(Message.VISIBLE_CARD, visibleCard);
+
+            // Hidden card
+            Card hiddenCard = shoe.drawCard();
+            player.setHiddenCard(hiddenCard);
+            player.send(Message.HIDDEN_CARD, hiddenCard);
+
+            // Update total
+            player.updateTotal();
+            player.setTurnDone(false);
+        }
+
+        recorder.deal(currentRound, dealerUpCard, holeCard, players);
+
+        TableSnapshot snapshot = snapshot();
+        feed.add(Message.ROUND, currentRound);
+        feed.add(Message.DEALER_CARD, dealerUpCard);
+        feed.add(snapshot);
+        for (ClientHandler player : players) {
+            if (player.isOut()) continue;
+            player.send(Message.DEALER_CARD, dealerUpCard);
+            player.send(snapshot);
+        }
+
+        // notifica o primeiro jogador que é a vez dele
+        currentPlayerIndex = 0;
+        while (players.get(currentPlayerIndex).isTurnDone()) currentPlayerIndex++;
+        if (Log.isDebugEnabled()) Log.debug("Mesa " + tableId + ": rodada " + currentRound + " iniciada. É a vez do Jogador " + players.get(currentPlayerIndex).getPlayerId());
+        promptTurn(players.get(currentPlayerIndex));
+    }
+
+    private TableSnapshot snapshot() {
+        TableSnapshot snapshot = new TableSnapshot(players.size());
+        for (int i = 0; i < players.size(); i++) {
+            ClientHandler player = players.get(i);
+            if (player.isOut()) {
+                snapshot.set(i, player.getPlayerId(), 0, null);
+            } else {
+                snapshot.set(i, player.getPlayerId(), player.getLives(), player.getVisibleCard());
+            }
+        }
+        return snapshot;
+    }
+
+    // Getters
+    public int getTableId() {
+        return tableId;
+    }
+
+    public int getCurrentRound() {
+        return currentRound;
+    }
+}
@@ -0,0 +1,162 @@
+package server;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Codifica os eventos de uma mesa para o diário. Usado só pela thread da mesa: os registros de uma execução da caixa
+// de entrada se acumulam no buffer e vão para o Journal num único append, em flush(), como as mensagens dos
+// jogadores. Com o diário desligado, nada é montado.
+class TableRecorder {
+    private final Journal journal;
+    private final int tableId;
+    private final boolean enabled;
+    private byte[] buffer = new byte[256]; // Registros pendentes, cada um com 2 bytes de tamanho na frente
+    private int size;
+    private int recordStart; // Início do registro sendo montado
+    private final byte[] dealerDraws = new byte[24]; // Cartas compradas pelo dealer na rodada: nunca passam de 21
+    private int dealerDrawCount;
+
+    TableRecorder(Journal journal, int tableId) {
+        this.journal = journal;
+        this.tableId = tableId;
+        this.enabled = journal != Journal.DISABLED;
+    }
+
+    void open(long seed, boolean reproducible, int decks, double penetration) {
+        if (!enabled) return;
+        begin(Journal.OPEN);
+        writeLong(System.currentTimeMillis());
+        writeLong(seed);
+        write(reproducible ? 1 : 0);
+        writeVarint(decks);
+        writeLong(Double.doubleToLongBits(penetration));
+        commit();
+    }
+
+    void join(int seat, int rating, int lives) {
+        if (!enabled) return;
+        begin(Journal.JOIN);
+        writeVarint(seat);
+        writeVarint(rating);
+        writeVarint(lives);
+        commit();
+    }
+
+    void start() {
+        if (!enabled) return;
+        begin(Journal.START);
+        commit();
+    }
+
+    void deal(int round, Card upCard, Card holeCard, List<ClientHandler> players) {
+        if (!enabled) return;
+        begin(Journal.DEAL);
+        writeVarint(round);
+        write(upCard.code());
+        write(holeCard.code());
+        for (ClientHandler player : players) { // Até o fim do registro: assento, carta visível e oculta
+            if (player.isOut()) continue;
+            writeVarint(player.getPlayerId());
+            write(player.getVisibleCard().code());
+            write(player.getHiddenCard().code());
+        }
+        commit();
+    }
+
+    void hit(int seat, Card card) {
+        if (!enabled) return;
+        begin(Journal.HIT);
+        writeVarint(seat);
+        write(card.code());
+        commit();
+    }
+
+    void stand(int seat, int reason) {
+        if (!enabled) return;
+        begin(Journal.STAND);
+        writeVarint(seat);
+        write(reason);
+        commit();
+    }
+
+    void away(int seat) {
+        seat(Journal.AWAY, seat);
+    }
+
+    void back(int seat) {
+        seat(Journal.BACK, seat);
+    }
+
+    void leave(int seat) {
+        seat(Journal.LEAVE, seat);
+    }
+
+    void dealerDraw(Card card) { // Acumula até dealer()
+        if (enabled) dealerDraws[dealerDrawCount++] = (byte) card.code();
+    }
+
+    void dealer(int total) {
+        if (!enabled) return;
+        begin(Journal.DEALER);
+        writeVarint(total);
+        for (int i = 0; i < dealerDrawCount; i++) write(dealerDraws[i]);
+        dealerDrawCount = 0;
+        commit();
+    }
+
+    void result(int seat, Outcome outcome, int lives) {
+        if (!enabled) return;
+        begin(Journal.RESULT);
+        writeVarint(seat);
+        write(outcome.code);
+        writeVarint(lives);
+        commit();
+    }
+
+    void end(int winnerSeat) {
+        seat(Journal.END, winnerSeat);
+    }
+
+    private void seat(byte type, int seat) {
+        if (!enabled) return;
+        begin(type);
+        writeVarint(seat);
+        commit();
+    }
+
+    void flush() { // Fim de uma execução da caixa de entrada
+        if (size == 0) return;
+        journal.append(Arrays.copyOf(buffer, size));
+        size = 0;
+    }
+
+    private void begin(byte type) {
+        recordStart = size;
+        size += 2; // Tamanho, preenchido em commit()
+        write(type);
+        writeVarint(tableId);
+    }
+
+    private void commit() {
+        int length = size - recordStart - 2;
+        buffer[recordStart] = (byte) (length >>> 8);
+        buffer[recordStart + 1] = (byte) length;
+    }
+
+    private void write(int value) {
+        if (size == buffer.length) buffer = Arrays.copyOf(buffer, size * 2);
+        buffer[size++] = (byte) value;
+    }
+
+    private void writeVarint(int value) { // Mesmo formato do protocolo binário
+        while ((value & ~0x7F) != 0) {
+            write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        write(value);
+    }
+
+    private void writeLong(long value) {
+        for (int shift = 56; shift >= 0; shift -= 8) write((int) (value >>> shift));
+    }
+}
@@ -0,0 +1,46 @@
+package server;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Estado público da mesa (assento, vidas e carta visível de cada jogador), enviado igual para todos.
+// É codificado uma única vez por protocolo e os mesmos bytes vão para cada jogador: um evento custa N envios,
+// em vez das N x (N - 1) mensagens "do oponente" de antes.
+public class TableSnapshot {
+    private final int[] seats;
+    private final int[] lives;
+    private final Card[] visibleCards; // null para quem está fora do jogo
+    private final Map<Class<?>, byte[]> encoded = new HashMap<>(4); // Por classe de protocolo; só a thread da mesa usa
+
+    public TableSnapshot(int size) {
+        seats = new int[size];
+        lives = new int[size];
+        visibleCards = new Card[size];
+    }
+
+    void set(int index, int seat, int lives, Card visibleCard) {
+        this.seats[index] = seat;
+        this.lives[index] = lives;
+        this.visibleCards[index] = visibleCard;
+    }
+
+    public int size() {
+        return seats.length;
+    }
+
+    public int seat(int index) {
+        return seats[index];
+    }
+
+    public int lives(int index) {
+        return lives[index];
+    }
+
+    public Card visibleCard(int index) {
+        return visibleCards[index];
+    }
+
+    byte[] encoded(Protocol protocol) { // Cada conexão tem seu objeto de protocolo, então a chave é a classe
+        return encoded.computeIfAbsent(protocol.getClass(), c -> protocol.encode(this));
+    }
+}
@@ -0,0 +1,171 @@
+package server;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+
+public class TextProtocol implements Protocol { // Protocolo original: uma linha de texto por mensagem
+    static final int MAX_LINE = 256; // Bytes por comando; o maior legítimo é HELLO com um nome de 32 bytes
+    private static final byte[][] PREFIXES = new byte[Message.values().length][]; // "VISIBLE_CARD " etc. já codificados
+    private static final byte[][] OUTCOMES = new byte[Outcome.values().length][]; // Textos dos resultados, idem
+    private static final byte[] ROUND_STAKE = ". Vale ".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] ROUND_END = " vida(s).".getBytes(StandardCharsets.UTF_8);
+
+    static {
+        for (Message message : Message.values()) {
+            String prefix = message.payload == Message.Payload.NONE ? message.name() : message.name() + " ";
+            PREFIXES[message.ordinal()] = prefix.getBytes(StandardCharsets.UTF_8);
+        }
+        for (Outcome outcome : Outcome.values()) {
+            OUTCOMES[outcome.ordinal()] = outcome.text.getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    private final ByteArrayOutputStream line = new ByteArrayOutputStream(); // Linha parcial recebida
+
+    @Override
+    public void write(ByteArrayOutputStream out, Message message, int value) {
+        out.writeBytes(PREFIXES[message.ordinal()]);
+        if (message.payload == Message.Payload.NUMBER) {
+            writeNumber(out, value);
+        }
+        if (message == Message.ROUND) { // "ROUND 3. Vale 3 vida(s)."
+            out.writeBytes(ROUND_STAKE);
+            writeNumber(out, value);
+            out.writeBytes(ROUND_END);
+        }
+        out.write('\n');
+    }
+
+    @Override
+    public void write(ByteArrayOutputStream out, Message message, Card card) {
+        out.writeBytes(PREFIXES[message.ordinal()]);
+        out.writeBytes(card.nameBytes());
+        out.write('\n');
+    }
+
+    @Override
+    public void write(ByteArrayOutputStream out, Message message, Outcome outcome) {
+        out.writeBytes(PREFIXES[message.ordinal()]);
+        out.writeBytes(OUTCOMES[outcome.ordinal()]);
+        out.write('\n');
+    }
+
+    @Override
+    public void write(ByteArrayOutputStream out, Message message, long token) { // Token em hexadecimal
+        out.writeBytes(PREFIXES[message.ordinal()]);
+        out.writeBytes(HexFormat.of().toHexDigits(token).getBytes(StandardCharsets.US_ASCII));
+        out.write('\n');
+    }
+
+    @Override
+    public void write(ByteArrayOutputStream out, SeatState state) {
+        // "SYNC 3;5;2;7 de Paus;Rei de Copas,2 de Ouros;1:5:Rei de Copas;2:3:4 de Ouros"
+        // rodada; vidas; assento da vez; dealer; mão; assentos como em TABLE
+        out.writeBytes(PREFIXES[Message.SYNC.ordinal()]);
+        writeNumber(out, state.round());
+        out.write(';');
+        writeNumber(out, state.lives());
+        out.write(';');
+        writeNumber(out, state.turnSeat());
+        out.write(';');
+        out.writeBytes(state.dealerCard().nameBytes());
+        out.write(';');
+        for (int i = 0; i < state.hand().size(); i++) {
+            if (i > 0) out.write(',');
+            out.writeBytes(state.hand().get(i).nameBytes());
+        }
+        out.write(';');
+        writeSeats(out, state.table());
+        out.write('\n');
+    }
+
+    @Override
+    public void write(ByteArrayOutputStream out, PlayerProfile profile) { // "PROFILE 12;1032;5;3": vidas; rating; vitórias; derrotas
+        out.writeBytes(PREFIXES[Message.PROFILE.ordinal()]);
+        writeNumber(out, profile.lives());
+        out.write(';');
+        writeNumber(out, profile.rating());
+        out.write(';');
+        writeNumber(out, profile.won());
+        out.write(';');
+        writeNumber(out, profile.lost());
+        out.write('\n');
+    }
+
+    @Override
+    public void write(ByteArrayOutputStream out, RoundTotals totals) { // "SETTLE 19;1:20;2:22": dealer; assento:total
+        out.writeBytes(PREFIXES[Message.SETTLE.ordinal()]);
+        writeNumber(out, totals.dealerTotal());
+        for (int i = 0; i < totals.seats().length; i++) {
+            out.write(';');
+            writeNumber(out, totals.seats()[i]);
+            out.write(':');
+            writeNumber(out, totals.totals()[i]);
+        }
+        out.write('\n');
+    }
+
+    @Override
+    public void write(ByteArrayOutputStream out, ClusterNode node) { // "REDIRECT localhost:12355"
+        out.writeBytes(PREFIXES[Message.REDIRECT.ordinal()]);
+        out.writeBytes(node.host().getBytes(StandardCharsets.UTF_8));
+        out.write(':');
+        writeNumber(out, node.port());
+        out.write('\n');
+    }
+
+    @Override
+    public byte[] encode(TableSnapshot snapshot) { // "TABLE 1:5:7 de Paus;2:3:-", com "-" para quem está fora
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 + snapshot.size() * 24);
+        out.writeBytes(PREFIXES[Message.TABLE.ordinal()]);
+        writeSeats(out, snapshot);
+        out.write('\n');
+        return out.toByteArray();
+    }
+
+    private static void writeSeats(ByteArrayOutputStream out, TableSnapshot snapshot) {
+        for (int i = 0; i < snapshot.size(); i++) {
+            if (i > 0) out.write(';');
+            writeNumber(out, snapshot.seat(i));
+            out.write(':');
+            writeNumber(out, snapshot.lives(i));
+            out.write(':');
+            Card card = snapshot.visibleCard(i);
+            if (card == null) {
+                out.write('-');
+            } else {
+                out.writeBytes(card.nameBytes());
+            }
+        }
+    }
+
+    private static void writeNumber(ByteArrayOutputStream out, int value) { // Dígitos ASCII, sem criar String
+        if (value < 0) {
+            out.write('-');
+            value = -value;
+        }
+        int divisor = 1;
+        while (value / divisor >= 10) divisor *= 10;
+        for (; divisor > 0; divisor /= 10) out.write('0' + (value / divisor) % 10);
+    }
+
+    @Override
+    public void decode(ByteBuffer in, ClientHandler player) {
+        while (in.hasRemaining()) {
+            byte b = in.get();
+            if (b == '\n') {
+                String message = line.toString(StandardCharsets.UTF_8);
+                line.reset();
+                if (message.endsWith("\r")) message = message.substring(0, message.length() - 1);
+                player.onMessage(message);
+            } else if (line.size() < MAX_LINE) {
+                line.write(b);
+            } else { // Linha sem fim: o cliente é derrubado em vez de a linha crescer sem limite
+                line.reset();
+                player.abuse("linha com mais de " + MAX_LINE + " bytes");
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Agendador único do servidor (roda de tempo com hash): tempo de jogada, batimentos, reconexão e matchmaking.
+// Agendar é só enfileirar, sem lock; uma única thread avança a roda a cada tick e dispara os vencidos. O custo por
+// tick depende só da casa atual, então o overhead não cresce com o número de conexões.
+// As tarefas rodam na thread da roda e devem ser curtas: em geral só repassam o trabalho (table.execute, close).
+public class TimerWheel {
+    private final long tickNanos;
+    private final int mask;
+    private final List<List<Timeout>> slots;
+    private final Queue<Timeout> added = new ConcurrentLinkedQueue<>(); // Agendados desde o último tick
+    private final LongAdder pending = new LongAdder();
+    private final long start = System.nanoTime();
+    private long tick; // Ticks já processados; só a thread da roda usa
+    private volatile boolean stopped;
+
+    public TimerWheel(long tickMillis, int slotCount) { // slotCount deve ser potência de 2
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.mask = slotCount - 1;
+        this.slots = new ArrayList<>(slotCount);
+        for (int i = 0; i < slotCount; i++) slots.add(new ArrayList<>());
+        Metrics.gauge("timers_pending", pending::sum);
+        Thread.ofPlatform().daemon().name("timer").start(this::run);
+    }
+
+    public Timeout schedule(long delayMillis, Runnable task) { // Pode ser chamado de qualquer thread
+        Timeout timeout = new Timeout(task, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis));
+        pending.increment();
+        added.add(timeout);
+        return timeout;
+    }
+
+    void stop() { // A thread da roda termina no próximo tick; o que estiver agendado não dispara mais
+        stopped = true;
+    }
+
+    private void run() {
+        while (!stopped) {
+            long deadline = start + (tick + 1) * tickNanos;
+            long sleep;
+            while ((sleep = deadline - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(sleep);
+            }
+            transferAdded();
+            expire(slots.get((int) (tick & mask)));
+            tick++;
+        }
+    }
+
+    private void transferAdded() {
+        Timeout timeout;
+        while ((timeout = added.poll()) != null) {
+            if (timeout.cancelled) {
+                pending.decrement();
+                continue;
+            }
+            long ticks = Math.max((timeout.deadline - start) / tickNanos, tick); // Atrasado: dispara já
+            timeout.rounds = (ticks - tick) / slots.size();
+            slots.get((int) (ticks & mask)).add(timeout);
+        }
+    }
+
+    private void expire(List<Timeout> slot) {
+        int i = 0;
+        while (i < slot.size()) {
+            Timeout timeout = slot.get(i);
+            if (!timeout.cancelled && timeout.rounds > 0) {
+                timeout.rounds--;
+                i++;
+                continue;
+            }
+            slot.set(i, slot.getLast()); // Remoção sem deslocar a lista
+            slot.removeLast();
+            pending.decrement();
+            if (timeout.cancelled) continue;
+            try {
+                timeout.task.run();
+            } catch (RuntimeException e) {
+                Log.error("Erro em tarefa agendada.", e);
+            }
+        }
+    }
+
+    public static final class Timeout {
+        private final Runnable task;
+        private final long deadline;
+        private long rounds; // Voltas completas da roda que ainda faltam
+        private volatile boolean cancelled;
+
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        public void cancel() { // Removido da roda quando a casa dele for visitada
+            cancelled = true;
+        }
+    }
+}
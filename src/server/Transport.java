@@ -0,0 +1,7 @@
+package server;
+
+import java.io.IOException;
+
+public interface Transport { // Camada de conexões: aceita clientes e entrega os comandos recebidos ao servidor
+    void serve(ServerConfig config) throws IOException; // Bloqueia enquanto o servidor estiver ativo
+}
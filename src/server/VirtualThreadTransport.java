@@ -0,0 +1,121 @@
+package server;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Supplier;
+
+public class VirtualThreadTransport implements Transport { // Uma thread virtual por conexão, com I/O bloqueante
+    private static final int READ_BUFFER_SIZE = 4096;
+
+    private final BlackJackServer server;
+    private final Thread.Builder threads = Thread.ofVirtual().name("jogador-", 1);
+
+    public VirtualThreadTransport(BlackJackServer server) {
+        this.server = server;
+    }
+
+    @Override
+    public void serve(ServerConfig config) throws IOException {
+        ServerSocket binarySocket = config.binaryPort > 0 ? new ServerSocket(config.binaryPort) : null;
+        try (ServerSocket textSocket = new ServerSocket(config.port)) {
+            server.listening();
+            if (binarySocket != null) {
+                Thread.ofVirtual().name("accept-binario").start(() -> acceptLoop(binarySocket, BinaryProtocol::new, config));
+            }
+            acceptLoop(textSocket, TextProtocol::new, config);
+        } finally {
+            if (binarySocket != null) binarySocket.close();
+        }
+    }
+
+    private void acceptLoop(ServerSocket serverSocket, Supplier<Protocol> protocol, ServerConfig config) {
+        try {
+            while (true) {
+                Socket socket = serverSocket.accept();
+                threads.start(() -> handle(socket, protocol.get(), config.maxBacklog));
+            }
+        } catch (IOException e) {
+            Log.error("Erro ao aceitar conexões.", e);
+        }
+    }
+
+    private void handle(Socket socket, Protocol protocol, int maxBacklog) {
+        SocketConnection connection;
+        InputStream in;
+        try {
+            socket.setTcpNoDelay(true);
+            connection = new SocketConnection(socket, protocol, maxBacklog);
+            in = socket.getInputStream();
+        } catch (IOException e) {
+            Log.error("Erro ao abrir a conexão.", e);
+            return;
+        }
+        ClientHandler player = server.connect(connection);
+        byte[] buffer = new byte[READ_BUFFER_SIZE];
+        try {
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                connection.received(ByteBuffer.wrap(buffer, 0, n), player);
+            }
+        } catch (IOException e) {
+            // Conexão perdida; tratada no finally
+        } finally {
+            connection.close();
+            player.onDisconnect();
+        }
+    }
+
+    // Os lotes são escritos por uma thread virtual própria, para que um cliente lento não trave a mesa
+    private static class SocketConnection extends BufferedConnection {
+        private static final byte[] EOF = new byte[0]; // Sinaliza o fim da thread de escrita
+
+        private final Socket socket;
+        private final OutputStream out; // Para enviar mensagens ao cliente
+        private final LinkedBlockingQueue<byte[]> queue = new LinkedBlockingQueue<>(); // Lotes aguardando escrita
+
+        SocketConnection(Socket socket, Protocol protocol, int maxBacklog) throws IOException {
+            super(protocol, maxBacklog);
+            this.socket = socket;
+            this.out = new BufferedOutputStream(socket.getOutputStream());
+            Thread.ofVirtual().start(this::drain);
+        }
+
+        @Override
+        protected void write(byte[] batch) {
+            queue.add(batch);
+        }
+
+        private void drain() {
+            try {
+                while (true) {
+                    byte[] batch = queue.take();
+                    do {
+                        if (batch == EOF) return;
+                        out.write(batch);
+                        written(batch.length);
+                    } while ((batch = queue.poll()) != null); // Junta os lotes que chegaram enquanto escrevia
+                    out.flush();
+                }
+            } catch (IOException | InterruptedException e) {
+                close();
+            }
+        }
+
+        @Override
+        public void close() {
+            if (!markClosed()) return;
+            queue.add(EOF);
+            try {
+                socket.close();
+            } catch (IOException e) {
+                Log.error("Erro ao fechar a conexão.", e);
+            }
+        }
+    }
+}
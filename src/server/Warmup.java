@@ -0,0 +1,101 @@
+package server;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// Aquecimento antes de abrir as portas: joga rodadas sintéticas pelo mesmo caminho de uma conexão de verdade (bytes
+// decodificados pelo protocolo, HIT/STAND na mesa, acerto, mensagens codificadas em texto e em binário e o feed de um
+// espectador). Assim as primeiras mesas reais já encontram as classes carregadas e o caminho quente compilado pelo JIT,
+// em vez de rodar interpretado logo após um restart. As mesas sintéticas rodam num servidor à parte, sem diário nem
+// perfis; os logs delas são descartados e as métricas zeradas no fim.
+// Com -Dblackjack.warmupOnly=true o processo sai depois do aquecimento: é a execução de treino do arquivo CDS
+// (-XX:ArchiveClassesAtExit), que então já contém as classes do jogo.
+final class Warmup {
+    private static final int MAX_HITS = 11; // Nenhuma mão chega a 17 com mais cartas que isso
+    private static final int MAX_ROUNDS = 1000; // Por jogo, só por garantia
+
+    private Warmup() {
+    }
+
+    static void run(ServerConfig config) {
+        if (config.warmup <= 0) return;
+        long start = System.nanoTime();
+        BlackJackServer server = new BlackJackServer(config, Journal.DISABLED, null);
+        int rounds = 0;
+        int games = 0;
+        Log.mute(true);
+        try {
+            while (rounds < config.warmup) {
+                games++;
+                rounds += playGame(server, games, config.seats, games % 2 == 0);
+            }
+        } finally {
+            Log.mute(false);
+            server.getTimers().stop();
+            Metrics.reset();
+        }
+        Log.info("Aquecimento: " + rounds + " rodadas em " + games + " jogos, "
+                + (System.nanoTime() - start) / 1_000_000 + " ms.");
+    }
+
+    // Um jogo inteiro, na thread do aquecimento: cada jogador pede HIT até 17 e para. Devolve as rodadas jogadas
+    private static int playGame(BlackJackServer server, int tableId, int seats, boolean binary) {
+        Table table = new Table(tableId, server, Runnable::run);
+        WarmupConnection[] connections = new WarmupConnection[seats];
+        ClientHandler[] players = new ClientHandler[seats];
+        for (int i = 0; i < seats; i++) {
+            connections[i] = new WarmupConnection(binary);
+            ClientHandler player = new ClientHandler(connections[i], server);
+            players[i] = player;
+            player.seat(table, i + 1);
+            table.execute(() -> table.addPlayer(player));
+        }
+        ClientHandler spectator = new ClientHandler(new WarmupConnection(binary), server);
+        table.execute(() -> table.watch(spectator));
+        table.execute(table::startGame);
+        int rounds = 0;
+        while (!table.isClosed() && rounds < MAX_ROUNDS) {
+            for (int i = 0; i < seats; i++) {
+                ClientHandler player = players[i];
+                if (player.isOut()) continue;
+                for (int hits = 0; player.getTotal() < 17 && hits < MAX_HITS; hits++) connections[i].hit(player);
+                if (!player.getHand().isBust()) connections[i].stand(player);
+            }
+            rounds++;
+        }
+        return rounds;
+    }
+
+    // Recebe os comandos como bytes, igual a um socket, e descarta o que seria escrito
+    private static final class WarmupConnection extends BufferedConnection {
+        private static final byte[] TEXT_HIT = "HIT\n".getBytes(StandardCharsets.UTF_8);
+        private static final byte[] TEXT_STAND = "STAND\n".getBytes(StandardCharsets.UTF_8);
+        private static final byte[] BINARY_HIT = {BinaryProtocol.HIT};
+        private static final byte[] BINARY_STAND = {BinaryProtocol.STAND};
+
+        private final boolean binary;
+
+        WarmupConnection(boolean binary) {
+            super(binary ? new BinaryProtocol() : new TextProtocol(), Integer.MAX_VALUE);
+            this.binary = binary;
+        }
+
+        void hit(ClientHandler player) {
+            received(ByteBuffer.wrap(binary ? BINARY_HIT : TEXT_HIT), player);
+        }
+
+        void stand(ClientHandler player) {
+            received(ByteBuffer.wrap(binary ? BINARY_STAND : TEXT_STAND), player);
+        }
+
+        @Override
+        protected void write(byte[] batch) {
+            written(batch.length);
+        }
+
+        @Override
+        public void close() {
+            markClosed();
+        }
+    }
+}
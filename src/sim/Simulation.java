@@ -0,0 +1,254 @@
+package sim;
+
+import client.BotStrategy;
+import server.Card;
+import server.ClientHandler;
+import server.Hand;
+import server.Outcome;
+import server.Rules;
+import server.Shoe;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Simulação Monte-Carlo do jogo, sem rede nem mesas: bots jogam milhões de jogos uns contra os outros e contra o
+// dealer, com as mesmas regras da Table (server.Rules), para calibrar a aposta crescente e as vidas iniciais sem
+// tráfego real. Os jogos são divididos em fork/join por todos os núcleos; cada folha tem o próprio sapato, gerador e
+// mãos, reaproveitados de um jogo para o outro (nada é alocado por rodada), e as estatísticas das folhas são somadas
+// no fim. Com -Dsim.seed o resultado não depende do número de núcleos (exceto com a estratégia random).
+// Propriedades: -Dsim.games=1000000 -Dsim.strategies=basic,stand (uma por assento, de 1 a 7) -Dsim.lives=5
+//               -Dsim.stake=1 -Dsim.stakeGrowth=1 (aposta da rodada n: stake + (n - 1) * stakeGrowth; sem elas, a regra
+//               do jogo ao vivo) -Dsim.decks=1 -Dsim.penetration=0.75 -Dsim.seed=0 (0 = aleatória) -Dsim.maxRounds=1000
+public class Simulation {
+    private static final int LEAF_GAMES = 4096; // Jogos por folha do fork/join
+    private static final int BUCKETS = 257; // Histogramas de vidas e de rodadas: 0 a 255 e "256 ou mais"
+
+    private final long games = Long.getLong("sim.games", 1_000_000);
+    private final BotStrategy[] strategies = parseStrategies(System.getProperty("sim.strategies", "basic,stand"));
+    private final int startLives = Integer.getInteger("sim.lives", ClientHandler.STARTING_LIVES);
+    private final Integer stake = Integer.getInteger("sim.stake"); // null: Rules.stake
+    private final int stakeGrowth = Integer.getInteger("sim.stakeGrowth", 1);
+    private final int decks = Integer.getInteger("sim.decks", 1);
+    private final double penetration = Double.parseDouble(System.getProperty("sim.penetration", "0.75"));
+    private final long seed = Long.getLong("sim.seed", 0);
+    private final int maxRounds = Integer.getInteger("sim.maxRounds", 1000); // Jogo interrompido sem vencedor
+
+    public static void main(String[] args) {
+        new Simulation().run();
+    }
+
+    private static BotStrategy[] parseStrategies(String list) {
+        String[] names = list.split(",");
+        if (names.length < 1 || names.length > 7) {
+            throw new IllegalArgumentException("De 1 a 7 estratégias, uma por assento: " + list);
+        }
+        BotStrategy[] parsed = new BotStrategy[names.length];
+        for (int i = 0; i < names.length; i++) parsed[i] = BotStrategy.valueOf(names[i].trim().toUpperCase());
+        return parsed;
+    }
+
+    public void run() {
+        System.out.println("Simulando " + games + " jogos: " + Arrays.toString(strategies) + ", " + startLives
+                + " vidas, aposta " + (stake == null ? "da rodada" : stake + " + " + stakeGrowth + " por rodada") + ", "
+                + ForkJoinPool.commonPool().getParallelism() + " threads");
+        long start = System.nanoTime();
+        SplittableRandom random = seed == 0 ? new SplittableRandom() : new SplittableRandom(seed);
+        Stats stats = ForkJoinPool.commonPool().invoke(new Games(games, random));
+        stats.print(strategies, (System.nanoTime() - start) / 1e9);
+    }
+
+    private int stake(int round) {
+        return stake == null ? Rules.stake(round) : stake + (round - 1) * stakeGrowth;
+    }
+
+    // Divide os jogos ao meio até LEAF_GAMES. Os geradores saem de split() na ordem da divisão, então cada folha
+    // recebe sempre a mesma sequência, qualquer que seja a thread que a execute
+    @SuppressWarnings("serial") // Tarefa do fork/join, nunca serializada
+    private final class Games extends RecursiveTask<Stats> {
+        private final long count;
+        private final SplittableRandom random;
+
+        Games(long count, SplittableRandom random) {
+            this.count = count;
+            this.random = random;
+        }
+
+        @Override
+        protected Stats compute() {
+            if (count <= LEAF_GAMES) return new Table(random).play(count);
+            Games left = new Games(count / 2, random.split());
+            Games right = new Games(count - count / 2, random.split());
+            left.fork();
+            Stats stats = right.compute();
+            stats.add(left.join());
+            return stats;
+        }
+    }
+
+    // Uma mesa simulada, usada por uma única folha: mesma ordem de cartas da Table (dealer, duas cartas por assento,
+    // depois a vez de cada um em ordem) e mesmo fim de jogo (sobra um jogador com vidas, ou nenhum)
+    private final class Table {
+        private final Shoe shoe;
+        private final Hand dealer = new Hand();
+        private final Hand[] hands = new Hand[strategies.length];
+        private final int[] lives = new int[strategies.length];
+        private final Stats stats = new Stats(strategies.length);
+
+        Table(SplittableRandom random) {
+            this.shoe = new Shoe(decks, penetration, random);
+            for (int i = 0; i < hands.length; i++) hands[i] = new Hand();
+        }
+
+        Stats play(long count) {
+            for (long game = 0; game < count; game++) playGame();
+            return stats;
+        }
+
+        private void playGame() {
+            shoe.shuffle();
+            Arrays.fill(lives, startLives);
+            int round = 1;
+            int alive;
+            while ((alive = playRound(round)) > 1) {
+                if (round == maxRounds) {
+                    stats.capped++;
+                    break;
+                }
+                round++;
+                shoe.shuffleIfNeeded();
+            }
+            stats.games++;
+            stats.gameRounds[Math.min(round, BUCKETS - 1)]++;
+            if (alive == 1) {
+                for (int i = 0; i < lives.length; i++) if (lives[i] > 0) stats.gamesWon[i]++;
+            } else if (alive == 0) {
+                stats.allOut++;
+            }
+        }
+
+        private int playRound(int round) { // Devolve quantos jogadores ainda têm vidas
+            dealer.clear();
+            Card upCard = shoe.drawCard();
+            dealer.add(upCard);
+            dealer.add(shoe.drawCard());
+            for (int i = 0; i < hands.length; i++) {
+                if (lives[i] == 0) continue; // Fora do jogo
+                hands[i].clear();
+                hands[i].add(shoe.drawCard());
+                hands[i].add(shoe.drawCard());
+            }
+            boolean anyStanding = false;
+            for (int i = 0; i < hands.length; i++) {
+                if (lives[i] == 0) continue;
+                Hand hand = hands[i];
+                while (!hand.isBust() && strategies[i].hit(hand.total(), hand.isSoft(), upCard.code())) {
+                    hand.add(shoe.drawCard());
+                }
+                if (!hand.isBust()) anyStanding = true;
+            }
+            if (anyStanding) {
+                while (Rules.dealerDraws(dealer)) dealer.add(shoe.drawCard());
+            }
+            if (dealer.isBust()) stats.dealerBusts++;
+            stats.rounds++;
+            int atStake = stake(round);
+            int alive = 0;
+            for (int i = 0; i < hands.length; i++) {
+                if (lives[i] == 0) continue;
+                Outcome result = Rules.settle(hands[i].total(), dealer.total(), dealer.isBust());
+                stats.outcomes[i][result.ordinal()]++;
+                lives[i] = Rules.lives(lives[i], result, atStake);
+                stats.lives[Math.min(lives[i], BUCKETS - 1)]++;
+                if (lives[i] > 0) alive++;
+            }
+            return alive;
+        }
+    }
+
+    private static final class Stats { // Contadores de uma folha; somados no fim, sem nada compartilhado entre threads
+        private long games;
+        private long rounds;
+        private long dealerBusts;
+        private long allOut; // Jogos que acabaram sem vencedor
+        private long capped; // Jogos interrompidos em maxRounds
+        private final long[] gamesWon;
+        private final long[][] outcomes; // Por assento e Outcome
+        private final long[] lives = new long[BUCKETS]; // Vidas de cada jogador depois de cada acerto
+        private final long[] gameRounds = new long[BUCKETS]; // Rodadas por jogo
+
+        Stats(int seats) {
+            gamesWon = new long[seats];
+            outcomes = new long[seats][Outcome.values().length];
+        }
+
+        void add(Stats other) {
+            games += other.games;
+            rounds += other.rounds;
+            dealerBusts += other.dealerBusts;
+            allOut += other.allOut;
+            capped += other.capped;
+            for (int i = 0; i < gamesWon.length; i++) {
+                gamesWon[i] += other.gamesWon[i];
+                for (int o = 0; o < outcomes[i].length; o++) outcomes[i][o] += other.outcomes[i][o];
+            }
+            for (int i = 0; i < BUCKETS; i++) {
+                lives[i] += other.lives[i];
+                gameRounds[i] += other.gameRounds[i];
+            }
+        }
+
+        void print(BotStrategy[] strategies, double seconds) {
+            System.out.printf("Jogos: %d  Rodadas: %d (%.1f M rodadas/s)  Tempo: %.1f s%n", games, rounds,
+                    rounds / seconds / 1e6, seconds);
+            System.out.printf("Dealer estourou em %.2f%% das rodadas. Jogos sem vencedor: %.2f%%. Interrompidos: %d%n",
+                    percent(dealerBusts, rounds), percent(allOut, games), capped);
+            System.out.println("Rodadas por jogo: média " + String.format("%.2f", mean(gameRounds)) + ", p50 "
+                    + percentile(gameRounds, 50) + ", p90 " + percentile(gameRounds, 90) + ", p99 "
+                    + percentile(gameRounds, 99));
+            System.out.println("Vidas após cada acerto: p10 " + percentile(lives, 10) + ", p50 " + percentile(lives, 50)
+                    + ", p90 " + percentile(lives, 90) + ", p99 " + percentile(lives, 99) + ", zeradas "
+                    + String.format("%.2f%%", percent(lives[0], sum(lives))));
+            for (int i = 0; i < strategies.length; i++) {
+                long[] seat = outcomes[i];
+                long hands = sum(seat);
+                long wins = seat[Outcome.WIN.ordinal()] + seat[Outcome.DEALER_BUST.ordinal()];
+                long losses = seat[Outcome.LOSS.ordinal()] + seat[Outcome.BUST.ordinal()];
+                System.out.printf("Assento %d (%s): venceu %.2f%% dos jogos; rodadas: %.2f%% ganhas, %.2f%% empatadas,"
+                                + " %.2f%% perdidas, %.2f%% estouradas%n", i + 1, strategies[i], percent(gamesWon[i], games),
+                        percent(wins, hands), percent(seat[Outcome.PUSH.ordinal()], hands), percent(losses, hands),
+                        percent(seat[Outcome.BUST.ordinal()], hands));
+            }
+        }
+
+        private static double percent(long part, long total) {
+            return total == 0 ? 0 : 100.0 * part / total;
+        }
+
+        private static long sum(long[] counts) {
+            long total = 0;
+            for (long count : counts) total += count;
+            return total;
+        }
+
+        private static double mean(long[] histogram) { // O último balde conta como BUCKETS - 1
+            long total = sum(histogram);
+            if (total == 0) return 0;
+            double weighted = 0;
+            for (int i = 0; i < histogram.length; i++) weighted += (double) i * histogram[i];
+            return weighted / total;
+        }
+
+        private static String percentile(long[] histogram, double p) {
+            long total = sum(histogram);
+            long target = (long) Math.ceil(total * p / 100.0);
+            long seen = 0;
+            for (int i = 0; i < histogram.length; i++) {
+                seen += histogram[i];
+                if (seen >= target && seen > 0) return i == BUCKETS - 1 ? (BUCKETS - 1) + "+" : String.valueOf(i);
+            }
+            return "0";
+        }
+    }
+}
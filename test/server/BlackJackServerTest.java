@@ -0,0 +1,106 @@
+package server;
+
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+
+// Controle de admissão em connect (limite de conexões sob concorrência e vaga devolvida na queda) e RESUME
+final class BlackJackServerTest {
+    private static final int MAX_CONNECTIONS = 50;
+    private static final int THREADS = 8;
+    private static final int CONNECTS = 100; // Por thread
+
+    private BlackJackServerTest() {
+    }
+
+    static void run() {
+        Tests.test("admission.connectionCap", BlackJackServerTest::connectionCap);
+        Tests.test("resume.seatStillConnected", BlackJackServerTest::resumeSeatStillConnected);
+        Tests.test("tables.idWraps", BlackJackServerTest::tableIdWraps);
+    }
+
+    private static void connectionCap() throws InterruptedException {
+        // handshakeWait longo: ninguém entra na fila do matchmaking durante o teste
+        BlackJackServer server = new BlackJackServer(Tests.config("maxConnections", String.valueOf(MAX_CONNECTIONS),
+                "handshakeWait", "600000"), Journal.DISABLED, null);
+        ConcurrentLinkedQueue<Connected> connected = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < CONNECTS; i++) connected.add(connect(server));
+            }));
+        }
+        start.countDown(); // Todas disputam as vagas ao mesmo tempo
+        for (Thread thread : threads) thread.join();
+        List<Connected> accepted = connected.stream().filter(c -> !c.busy()).toList();
+        Tests.check(accepted.size() == MAX_CONNECTIONS, "aceitas: " + accepted.size() + " de " + MAX_CONNECTIONS);
+
+        Tests.check(connect(server).busy(), "aceita acima do limite");
+        accepted.get(0).player.onDisconnect(); // A queda devolve a vaga: a próxima entra, a seguinte não
+        Tests.check(!connect(server).busy(), "vaga não devolvida na queda");
+        Tests.check(connect(server).busy(), "aceita acima do limite depois da queda");
+        server.getTimers().stop();
+    }
+
+    // O cliente reconectou antes de o servidor ver a queda: a conexão do assento ainda está aberta quando chega o RESUME
+    private static void resumeSeatStillConnected() {
+        BlackJackServer server = new BlackJackServer(Tests.config("handshakeWait", "600000"), Journal.DISABLED, null);
+        Table table = new Table(1, server, Runnable::run); // A mesa roda cada comando na hora, na thread do teste
+        TestConnection old = new TestConnection();
+        ClientHandler seat = new ClientHandler(old, server);
+        ClientHandler opponent = new ClientHandler(new TestConnection(), server);
+        seat.seat(table, 1);
+        opponent.seat(table, 2);
+        table.execute(() -> table.addPlayer(seat));
+        table.execute(() -> table.addPlayer(opponent));
+        table.execute(table::startGame);
+        long resumes = Metrics.resumes.sum();
+
+        TestConnection fresh = new TestConnection();
+        ClientHandler handshake = server.connect(fresh);
+        server.resume(handshake, HexFormat.of().toHexDigits(seat.getSessionToken()));
+        Tests.check(old.isClosed(), "conexão antiga não foi fechada");
+        Tests.check(seat.connection() == fresh, "assento não passou para a nova conexão");
+        Tests.check(!seat.isDisconnected() && !seat.isAway(), "assento ainda ausente depois do RESUME");
+        Tests.check(Metrics.resumes.sum() == resumes + 1, "RESUME não foi aceito");
+
+        seat.onDisconnect(); // A camada de rede avisa, atrasada, a queda da conexão antiga
+        Tests.check(seat.connection() == fresh && !seat.isDisconnected(), "queda da conexão antiga derrubou o assento");
+        server.getTimers().stop();
+    }
+
+    // A sequência de 24 bits dá a volta sem sair da faixa do nó, pulando o 0 e as mesas ainda abertas
+    private static void tableIdWraps() {
+        BlackJackServer server = new BlackJackServer(Tests.config(), Journal.DISABLED, null);
+        server.tables.put(2, new Table(2, server, Runnable::run)); // A mesa 2 ainda está em jogo
+        int last = 0;
+        for (int i = 0; i < BlackJackServer.TABLE_SEQUENCE - 1; i++) {
+            int id = server.nextTableId();
+            Tests.check(id > last && id <= BlackJackServer.TABLE_SEQUENCE && id != 2, "ID fora de ordem: " + id);
+            last = id;
+        }
+        Tests.check(last == BlackJackServer.TABLE_SEQUENCE, "último ID antes da volta: " + last);
+        Tests.check(server.nextTableId() == 1, "a volta não pulou o 0");
+        Tests.check(server.nextTableId() == 3, "a volta não pulou a mesa aberta");
+        server.getTimers().stop();
+    }
+
+    private static Connected connect(BlackJackServer server) {
+        TestConnection connection = new TestConnection();
+        return new Connected(connection, server.connect(connection));
+    }
+
+    private record Connected(TestConnection connection, ClientHandler player) {
+        boolean busy() { // Só o BUSY é escrito durante o teste
+            return connection.bytesWritten() > 0;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package server;
+
+import java.util.concurrent.TimeUnit;
+
+// ClientHandler.allow: balde de fichas de 10 comandos acima do ritmo de 1000/s, com o relógio passado pelo teste
+final class ClientHandlerTest {
+    private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1); // Uma ficha a 1000 comandos/s
+
+    private ClientHandlerTest() {
+    }
+
+    static void run() {
+        Tests.test("rateLimit.burstThenThrottle", ClientHandlerTest::burstThenThrottle);
+        Tests.test("rateLimit.refill", ClientHandlerTest::refill);
+        Tests.test("rateLimit.abuseDisconnects", ClientHandlerTest::abuseDisconnects);
+        Tests.test("rateLimit.disabled", ClientHandlerTest::disabled);
+    }
+
+    private static void burstThenThrottle() {
+        ClientHandler player = player("1000", "10");
+        long now = System.nanoTime(); // Depois do construtor: o balde começa cheio
+        for (int i = 1; i <= 10; i++) Tests.check(player.allow(now), "comando " + i + " da rajada recusado");
+        Tests.check(!player.allow(now), "comando acima da rajada aceito");
+    }
+
+    private static void refill() {
+        ClientHandler player = player("1000", "10");
+        long now = System.nanoTime();
+        for (int i = 0; i < 11; i++) player.allow(now); // O recusado também gasta ficha
+        Tests.check(!player.allow(now + MILLI), "aceito com uma ficha só reposta");
+        Tests.check(player.allow(now + 3 * MILLI), "recusado com o balde repondo");
+    }
+
+    private static void abuseDisconnects() { // Passou do dobro da rajada sem esperar: desconectado
+        TestConnection connection = new TestConnection();
+        ClientHandler player = player(connection, "1000", "10");
+        long now = System.nanoTime();
+        for (int i = 0; i < 20; i++) player.allow(now);
+        Tests.check(!connection.isClosed(), "desconectado antes do dobro da rajada");
+        player.allow(now);
+        Tests.check(connection.isClosed(), "não desconectado acima do dobro da rajada");
+    }
+
+    private static void disabled() {
+        ClientHandler player = player("0", "10");
+        long now = System.nanoTime();
+        for (int i = 0; i < 1000; i++) Tests.check(player.allow(now), "recusado sem limite de comandos");
+    }
+
+    private static ClientHandler player(String rate, String burst) {
+        return player(new TestConnection(), rate, burst);
+    }
+
+    private static ClientHandler player(TestConnection connection, String rate, String burst) {
+        BlackJackServer server = new BlackJackServer(Tests.config("commandRate", rate, "commandBurst", burst),
+                Journal.DISABLED, null);
+        return new ClientHandler(connection, server);
+    }
+}
@@ -0,0 +1,115 @@
+package server;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+
+// FileJournal: o que foi enfileirado volta na mesma ordem, mesmo quando a fila acumula mais que um segmento
+final class FileJournalTest {
+    private static final int SEGMENT = 1 << 20;
+
+    private FileJournalTest() {
+    }
+
+    static void run() {
+        Tests.test("journal.roundTrip", () -> backlog(100, 64));
+        Tests.test("journal.backlogLargerThanSegment", () -> backlog(3000, 1000)); // ~3 MiB na fila de uma vez
+        Tests.test("journal.appendLargerThanSegment", FileJournalTest::appendLargerThanSegment);
+        Tests.test("journal.fullQueue", FileJournalTest::fullQueue);
+    }
+
+    private static void backlog(int count, int size) throws Exception {
+        Path dir = Files.createTempDirectory("journal-test");
+        try {
+            FileJournal journal = new FileJournal(dir, SEGMENT, false, Integer.MAX_VALUE);
+            for (int i = 0; i < count; i++) journal.append(records(i, size));
+            journal.close();
+            List<Integer> read = new ArrayList<>();
+            FileJournal.read(dir, (runId, record) -> {
+                Tests.check(record.remaining() == size, "tamanho do registro: " + record.remaining());
+                read.add(record.getInt());
+            });
+            Tests.check(read.size() == count, "registros lidos: " + read.size() + " de " + count);
+            for (int i = 0; i < count; i++) Tests.check(read.get(i) == i, "ordem do registro " + i + ": " + read.get(i));
+            try (Stream<Path> files = Files.list(dir)) {
+                long segments = files.count();
+                long minimum = ((long) count * (size + 2) + SEGMENT - 1) / SEGMENT;
+                Tests.check(segments >= minimum, "segmentos: " + segments + ", esperado pelo menos " + minimum);
+            }
+        } finally {
+            Tests.delete(dir);
+        }
+    }
+
+    private static void appendLargerThanSegment() throws Exception {
+        Path dir = Files.createTempDirectory("journal-test");
+        try {
+            FileJournal journal = new FileJournal(dir, SEGMENT, false, Integer.MAX_VALUE);
+            try {
+                journal.append(new byte[SEGMENT]);
+                Tests.check(false, "append maior que o segmento foi aceito");
+            } catch (IllegalArgumentException expected) {
+                // O erro é de quem grava, na hora: o diário segue funcionando
+            }
+            journal.append(records(7, 16));
+            journal.close();
+            List<Integer> read = new ArrayList<>();
+            FileJournal.read(dir, (runId, record) -> read.add(record.getInt()));
+            Tests.check(read.equals(List.of(7)), "registros depois do erro: " + read);
+        } finally {
+            Tests.delete(dir);
+        }
+    }
+
+    // Fila de 2 appends disputada por 4 mesas: elas esperam o disco, a fila nunca passa do limite e nada se perde
+    private static void fullQueue() throws Exception {
+        int queueSize = 2;
+        int threads = 4;
+        int appends = 2000; // Por thread
+        Path dir = Files.createTempDirectory("journal-test");
+        try {
+            FileJournal journal = new FileJournal(dir, SEGMENT, false, queueSize);
+            LongSupplier depth = Metrics.gauges().get("journal_pending");
+            AtomicBoolean done = new AtomicBoolean();
+            AtomicLong deepest = new AtomicLong();
+            Thread sampler = Thread.ofPlatform().start(() -> {
+                while (!done.get()) deepest.accumulateAndGet(depth.getAsLong(), Math::max);
+            });
+            List<Thread> tables = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int table = t;
+                tables.add(Thread.ofPlatform().start(() -> {
+                    for (int i = 0; i < appends; i++) journal.append(records(table * appends + i, 8));
+                }));
+            }
+            for (Thread table : tables) table.join();
+            done.set(true);
+            sampler.join();
+            journal.close();
+            Tests.check(deepest.get() <= queueSize, "fila chegou a " + deepest.get() + " appends, limite " + queueSize);
+            int[] next = new int[threads]; // Próximo índice esperado de cada mesa: a ordem de cada uma se mantém
+            int[] read = {0};
+            FileJournal.read(dir, (runId, record) -> {
+                int index = record.getInt();
+                int table = index / appends;
+                Tests.check(index == table * appends + next[table]++, "fora de ordem: " + index);
+                read[0]++;
+            });
+            Tests.check(read[0] == threads * appends, "registros lidos: " + read[0] + " de " + threads * appends);
+        } finally {
+            Tests.delete(dir);
+        }
+    }
+
+    private static byte[] records(int index, int size) { // Um registro no formato do TableRecorder: [tamanho][corpo]
+        ByteBuffer buffer = ByteBuffer.allocate(2 + size);
+        buffer.putShort((short) size).putInt(index);
+        return buffer.array();
+    }
+}
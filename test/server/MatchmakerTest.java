@@ -0,0 +1,79 @@
+package server;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Matchmaker: pareamento na chegada, sem a varredura periódica (start() não é chamado), e descarte de quem já caiu
+final class MatchmakerTest {
+    private MatchmakerTest() {
+    }
+
+    static void run() {
+        Tests.test("matchmaker.pairsOnArrival", MatchmakerTest::pairsOnArrival);
+        Tests.test("matchmaker.dropsDisconnectedArrival", MatchmakerTest::dropsDisconnectedArrival);
+        Tests.test("matchmaker.skipsDisconnectedTicket", MatchmakerTest::skipsDisconnectedTicket);
+    }
+
+    private static void pairsOnArrival() {
+        RecordingServer server = new RecordingServer();
+        ClientHandler first = server.player();
+        ClientHandler second = server.player();
+        server.getMatchmaker().enqueue(first);
+        Tests.check(server.opened.isEmpty(), "mesa aberta com um jogador só");
+        server.getMatchmaker().enqueue(second);
+        server.checkOpened(List.of(first, second));
+    }
+
+    // Quem cai durante o login ou o RESUME chega à fila já desconectado: não pode tirar da fila um jogador vivo
+    private static void dropsDisconnectedArrival() {
+        RecordingServer server = new RecordingServer();
+        ClientHandler waiting = server.player();
+        ClientHandler dropped = server.player();
+        ClientHandler next = server.player();
+        server.getMatchmaker().enqueue(waiting);
+        dropped.onDisconnect();
+        server.getMatchmaker().enqueue(dropped);
+        Tests.check(server.opened.isEmpty(), "mesa aberta com um jogador desconectado");
+        Tests.check(server.getMatchmaker().waiting() == 1, "na fila: " + server.getMatchmaker().waiting());
+        server.getMatchmaker().enqueue(next);
+        server.checkOpened(List.of(waiting, next));
+    }
+
+    private static void skipsDisconnectedTicket() { // Caiu enquanto esperava: o bilhete é descartado ao ser tirado
+        RecordingServer server = new RecordingServer();
+        ClientHandler dropped = server.player();
+        ClientHandler second = server.player();
+        ClientHandler third = server.player();
+        server.getMatchmaker().enqueue(dropped);
+        dropped.onDisconnect();
+        server.getMatchmaker().enqueue(second);
+        Tests.check(server.opened.isEmpty(), "mesa aberta com um jogador desconectado");
+        server.getMatchmaker().enqueue(third);
+        server.checkOpened(List.of(second, third));
+    }
+
+    // Guarda as mesas que o matchmaking pediu, sem abri-las
+    private static final class RecordingServer extends BlackJackServer {
+        final List<List<ClientHandler>> opened = new ArrayList<>();
+
+        RecordingServer() {
+            super(new ServerConfig(), Journal.DISABLED, null);
+        }
+
+        ClientHandler player() {
+            return new ClientHandler(new TestConnection(), this);
+        }
+
+        @Override
+        public void openTable(ClientHandler... players) {
+            opened.add(Arrays.asList(players));
+        }
+
+        void checkOpened(List<ClientHandler> expected) {
+            Tests.check(opened.size() == 1, "mesas abertas: " + opened.size());
+            Tests.check(opened.get(0).size() == expected.size() && opened.get(0).containsAll(expected),
+                    "jogadores pareados errados");
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package server;
+
+import java.util.SplittableRandom;
+
+// Shoe: com penetração 1 a carta de corte nunca sai antes do fim, e o sapato acaba no meio das rodadas
+final class ShoeTest {
+    private static final int HANDS = Table.MAX_SEATS + 1; // Sete assentos e o dealer
+    private static final int ROUNDS = 10_000;
+
+    private ShoeTest() {
+    }
+
+    static void run() {
+        Tests.test("shoe.exhaustedMidRound", ShoeTest::exhaustedMidRound);
+    }
+
+    // Cada mão compra até 17, como o dealer; num baralho só, nenhuma carta pode sair duas vezes na mesma rodada
+    private static void exhaustedMidRound() {
+        Shoe shoe = new Shoe(1, 1.0, new SplittableRandom(7));
+        Hand[] hands = new Hand[HANDS];
+        for (int i = 0; i < HANDS; i++) hands[i] = new Hand();
+        long reshuffles = Metrics.reshuffles.sum();
+        shoe.shuffle();
+        int midRound = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            if (round > 0) shoe.shuffleIfNeeded();
+            boolean[] dealt = new boolean[256]; // Por Card.code()
+            int shuffles = shoe.getShuffles();
+            for (Hand hand : hands) {
+                hand.clear();
+                while (hand.total() < 17) {
+                    Card card = shoe.drawCard();
+                    Tests.check(!dealt[card.code()], "rodada " + round + ": " + card + " saiu duas vezes");
+                    dealt[card.code()] = true;
+                    hand.add(card);
+                }
+            }
+            midRound += shoe.getShuffles() - shuffles;
+        }
+        Tests.check(midRound > 0, "o sapato nunca acabou no meio de uma rodada");
+        Tests.check(Metrics.reshuffles.sum() == reshuffles, "o Shoe mexeu nas métricas do servidor"); // A Table conta
+    }
+}
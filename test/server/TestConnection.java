@@ -0,0 +1,31 @@
+package server;
+
+// Conexão em memória para os testes: descarta o que seria escrito, mas conta os bytes
+final class TestConnection extends BufferedConnection {
+    private volatile int bytesWritten;
+    private volatile boolean closed;
+
+    TestConnection() {
+        super(new TextProtocol(), Integer.MAX_VALUE);
+    }
+
+    int bytesWritten() {
+        return bytesWritten;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    protected void write(byte[] batch) {
+        bytesWritten += batch.length; // Uma conexão só é escrita por uma thread por vez
+        written(batch.length);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        markClosed();
+    }
+}
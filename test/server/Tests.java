@@ -0,0 +1,62 @@
+package server;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+// Testes de comportamento sem dependências, como os benchmarks: cada classe *Test registra seus casos em run(), e a
+// primeira falha encerra tudo com status 1. Ficam no pacote server para enxergar o que é package-private.
+//   javac -d out $(find src test -name '*.java') && java -cp out server.Tests
+public final class Tests {
+    public interface Case {
+        void run() throws Exception;
+    }
+
+    private static int passed;
+
+    private Tests() {
+    }
+
+    public static void main(String[] args) {
+        FileJournalTest.run();
+        MatchmakerTest.run();
+        ShoeTest.run();
+        ClientHandlerTest.run();
+        BlackJackServerTest.run();
+        System.out.println(passed + " teste(s) ok.");
+    }
+
+    static void test(String name, Case body) {
+        try {
+            body.run();
+        } catch (Throwable e) {
+            System.out.println("FALHOU " + name);
+            e.printStackTrace(System.out);
+            System.exit(1);
+        }
+        passed++;
+        System.out.println("ok     " + name);
+    }
+
+    static void check(boolean condition, String message) {
+        if (!condition) throw new AssertionError(message);
+    }
+
+    // ServerConfig lê as propriedades do sistema ao ser criado: define os pares nome/valor só durante a criação
+    static ServerConfig config(String... properties) {
+        for (int i = 0; i < properties.length; i += 2) System.setProperty("blackjack." + properties[i], properties[i + 1]);
+        try {
+            return new ServerConfig();
+        } finally {
+            for (int i = 0; i < properties.length; i += 2) System.clearProperty("blackjack." + properties[i]);
+        }
+    }
+
+    static void delete(Path dir) throws IOException { // Diretório temporário de um teste
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) Files.delete(file);
+        }
+    }
+}